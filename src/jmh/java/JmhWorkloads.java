@@ -0,0 +1,128 @@
+import org.apache.commons.math3.random.Well44497b;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+import sample.Sampling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+
+/**
+ * Hands the simulator's package-private workloads to the benchmarks in {@code bench}. JMH won't generate code for
+ * benchmarks in the default package and named packages can't refer to it, so the benchmarks look these up
+ * reflectively at setup and from then on only call JDK functional interfaces.
+ */
+public class JmhWorkloads {
+    // Durations are cycled through from a pre-drawn table so sampling stays out of the measurement
+    //
+    private static final int DURATIONS = 4096;
+
+    /**
+     * @return the request duration distribution of {@link MonteCarloLB}, 74 buckets sized for the given total
+     */
+    public static IntBucket[] durationBuckets(int aTotalRequests) {
+        IntBucket[] myBuckets = new IntBucket[MonteCarloLB.BUCKET_SIZE_PERCENTAGES.length];
+
+        for (int i = 0; i < myBuckets.length; i++)
+            myBuckets[i] = new TimeCeilingBucket(100 * (i + 1), MonteCarloLB.BUCKET_SIZE_PERCENTAGES[i],
+                    aTotalRequests);
+
+        return myBuckets;
+    }
+
+    /**
+     * @return the power-law key distribution of {@link MonteCarloCache}
+     */
+    public static IntBucket[] keyBuckets(int aNumKeys) {
+        IntBucket[] myBuckets = new IntBucket[aNumKeys];
+
+        for (int i = 0; i < aNumKeys; i++)
+            myBuckets[i] = new CacheKeyBucket(i + 1, MonteCarloCache.contribution(i + 1, 1));
+
+        return myBuckets;
+    }
+
+    /**
+     * @return a lone node receiving a request every <code>aMillisPerReq</code>, each call culls, admits the next
+     * request and yields the connections seen beforehand
+     */
+    public static IntSupplier node(int aLimit, int aMillisPerReq, long aSeed) {
+        Node myNode = new Node(0, new ThrottlePolicy(aLimit, 1000), false);
+        int[] myDurations = durations(aSeed);
+
+        return new IntSupplier() {
+            private long _time = 0;
+
+            @Override
+            public int getAsInt() {
+                _time += aMillisPerReq;
+
+                int myConnections = myNode.currentConnections(_time);
+
+                myNode.incomingRequest(myDurations[(int) _time & (DURATIONS - 1)], _time);
+                return myConnections;
+            }
+        };
+    }
+
+    /**
+     * @return a cluster fed at the same per node rate as the {@link MonteCarloLB} defaults (160000 rpm over 200
+     * nodes), each call routes and admits one request yielding the chosen node
+     */
+    public static IntSupplier selector(String aStrategy, int aNumNodes, long aSeed) {
+        List<Node> myNodes = new ArrayList<>();
+
+        for (int i = 0; i < aNumNodes; i++)
+            myNodes.add(new Node(i, new ThrottlePolicy(Integer.MAX_VALUE, 1000), false));
+
+        NodeSelector mySelector = SelectionStrategy.valueOf(aStrategy).create(myNodes);
+        double myMillisPerReq = 1000.0 / (aNumNodes * 160000 / 60 / 200);
+        int[] myDurations = durations(aSeed);
+
+        return new IntSupplier() {
+            private long _count = 0;
+
+            @Override
+            public int getAsInt() {
+                long myTime = Math.round(_count * myMillisPerReq);
+                int myDuration = myDurations[(int) _count++ & (DURATIONS - 1)];
+                int myTarget = mySelector.select(myTime);
+
+                myNodes.get(myTarget).incomingRequest(myDuration, myTime);
+                mySelector.admitted(myTarget, myDuration, myTime);
+
+                return myTarget;
+            }
+        };
+    }
+
+    /**
+     * @return a thread-safe cache, tests yield true on a hit
+     */
+    public static IntPredicate cache(String aPolicy, int aSize, int aConcurrency) {
+        return CachePolicy.valueOf(aPolicy).create(aSize, aConcurrency)::access;
+    }
+
+    /**
+     * @return a complete simulation from scratch at a fixed seed, yielding the number of breaches
+     */
+    public static Callable<Long> simulator(String aStrategy, int aNumNodes, int aReqsPerSec, int aRunTimeInSeconds,
+                                           int aLimit, long aSeed) {
+        IntBucket[] myBuckets = durationBuckets(aReqsPerSec * aRunTimeInSeconds);
+
+        return () -> new Simulator(false, myBuckets, aReqsPerSec,
+                new LB(aNumNodes, new ThrottlePolicy(aLimit, 1000), false, SelectionStrategy.valueOf(aStrategy)),
+                new Well44497b(aSeed)).call().getBreachTotal();
+    }
+
+    private static int[] durations(long aSeed) {
+        int[] myDurations = new int[DURATIONS];
+
+        new IntBucketConsumer(durationBuckets(DURATIONS * 2), new Well44497b(aSeed), Sampling.WITH_REPLACEMENT)
+                .fill(myDurations);
+
+        return myDurations;
+    }
+}
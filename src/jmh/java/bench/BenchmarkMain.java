@@ -0,0 +1,19 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks as JMH's own main would, accepting the same arguments, but always reporting allocation rates
+ * as <code>-prof gc</code> does.
+ */
+public class BenchmarkMain {
+    public static void main(String[] anArgs) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(anArgs))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
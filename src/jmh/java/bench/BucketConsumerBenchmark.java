@@ -0,0 +1,57 @@
+package bench;
+
+import org.apache.commons.math3.random.Well44497b;
+import org.openjdk.jmh.annotations.*;
+import sample.BucketConsumer;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+import sample.Sampling;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drawing samples from the 74 bucket duration distribution of <code>MonteCarloLB</code> and the 1M key power-law
+ * of <code>MonteCarloCache</code>. A consumer that runs dry is replaced, the cost of which is amortised over all the
+ * samples it gave.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketConsumerBenchmark {
+    @Param({"74", "1000000"})
+    public int buckets;
+
+    @Param({"UNIFORM", "PROPORTIONAL", "WITH_REPLACEMENT"})
+    public Sampling sampling;
+
+    private IntBucket[] _templates;
+    private BucketConsumer<Integer> _boxed;
+    private IntBucketConsumer _primitive;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _templates = (buckets == 74) ? Workloads.get("durationBuckets", 160000 * 60) :
+                Workloads.get("keyBuckets", buckets);
+        _boxed = new BucketConsumer<>(_templates, new Well44497b(1234L), sampling);
+        _primitive = new IntBucketConsumer(_templates, new Well44497b(1234L), sampling);
+    }
+
+    @Benchmark
+    public Integer nextSample() {
+        if (!_boxed.claim())
+            _boxed = new BucketConsumer<>(_templates, new Well44497b(1234L), sampling);
+
+        return _boxed.nextSample();
+    }
+
+    @Benchmark
+    public int nextSampleInt() {
+        if (!_primitive.claim())
+            _primitive = new IntBucketConsumer(_templates, new Well44497b(1234L), sampling);
+
+        return _primitive.nextSampleInt();
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import org.apache.commons.math3.random.Well44497b;
+import org.openjdk.jmh.annotations.*;
+import sample.IntBucketConsumer;
+import sample.Sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Four threads hammering one shared cache with keys drawn from the <code>MonteCarloCache</code> power-law, each
+ * access being a get and, on a miss, a put.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+    private static final int NUM_KEYS = 1000000;
+    private static final int CACHE_SIZE = 67000;
+
+    @Param({"LRU", "STRIPED_LRU", "INT_LRU"})
+    public String policy;
+
+    private IntPredicate _cache;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        // Power of two so the stream wraps with a mask
+        //
+        private final int[] _keys = new int[1 << 20];
+        private int _next = 0;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            new IntBucketConsumer(Workloads.get("keyBuckets", NUM_KEYS),
+                    new Well44497b(Thread.currentThread().getId()), Sampling.WITH_REPLACEMENT).fill(_keys);
+        }
+
+        int next() {
+            return _keys[_next++ & (_keys.length - 1)];
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        _cache = Workloads.get("cache", policy, CACHE_SIZE, 4);
+    }
+
+    @Benchmark
+    public boolean access(Keys aKeys) {
+        return _cache.test(aKeys.next());
+    }
+}
@@ -0,0 +1,33 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Culling and admitting requests on a single node, {@link Param} sets the gap between requests and thus how many
+ * connections are active.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeBenchmark {
+    @Param({"1", "75"})
+    public int millisPerReq;
+
+    private IntSupplier _node;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        _node = Workloads.get("node", Integer.MAX_VALUE, millisPerReq, 1234L);
+    }
+
+    @Benchmark
+    public int incomingRequest() {
+        return _node.getAsInt();
+    }
+}
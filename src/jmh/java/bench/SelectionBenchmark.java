@@ -0,0 +1,36 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Routing one request through the load balancer's node selection, at the same per node load whatever the cluster
+ * size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+    @Param({"10", "200", "2000"})
+    public int nodes;
+
+    @Param({"SCAN", "HEAP", "EVENT", "POWER_OF_D", "ROUND_ROBIN", "WEIGHTED_RANDOM", "CONSISTENT_HASH"})
+    public String strategy;
+
+    private IntSupplier _selector;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        _selector = Workloads.get("selector", strategy, nodes, 1234L);
+    }
+
+    @Benchmark
+    public int select() {
+        return _selector.getAsInt();
+    }
+}
@@ -0,0 +1,33 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A complete <code>MonteCarloLB</code> simulation at a fixed seed: 200 nodes at 160000 requests per minute for 10
+ * seconds, including sampling, routing and breach accounting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatorBenchmark {
+    @Param({"SCAN", "HEAP", "EVENT"})
+    public String strategy;
+
+    private Callable<Long> _simulation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        _simulation = Workloads.get("simulator", strategy, 200, 160000 / 60, 10, 25, 1234L);
+    }
+
+    @Benchmark
+    public long call() throws Exception {
+        return _simulation.call();
+    }
+}
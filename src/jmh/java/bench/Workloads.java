@@ -0,0 +1,24 @@
+package bench;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reflective access to <code>JmhWorkloads</code> which, like the rest of the simulator, is in the default package.
+ */
+final class Workloads {
+    private Workloads() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T get(String aName, Object... anArgs) {
+        try {
+            for (Method myMethod : Class.forName("JmhWorkloads").getMethods())
+                if (myMethod.getName().equals(aName) && (myMethod.getParameterCount() == anArgs.length))
+                    return (T) myMethod.invoke(null, anArgs);
+        } catch (ReflectiveOperationException anE) {
+            throw new IllegalStateException("Couldn't create workload " + aName, anE);
+        }
+
+        throw new IllegalArgumentException("No workload " + aName);
+    }
+}
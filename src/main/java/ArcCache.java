@@ -0,0 +1,106 @@
+/**
+ * Adaptive Replacement Cache (Megiddo &amp; Modha). Resident keys are split between T1, seen once recently, and T2,
+ * seen at least twice. Ghost lists B1 and B2 remember keys recently evicted from each and a hit on a ghost shifts
+ * the target size of T1 towards whichever list would have kept it, balancing recency against frequency.
+ */
+class ArcCache implements KeyCache {
+    private static final int T1 = 0;
+    private static final int T2 = 1;
+    private static final int B1 = 2;
+    private static final int B2 = 3;
+
+    private final int _capacity;
+    private final IntEntries _entries;
+    private final IntLinkedLists _lists;
+
+    // Target size for T1
+    //
+    private int _target = 0;
+
+    ArcCache(int aCapacity) {
+        _capacity = aCapacity;
+        _entries = new IntEntries(2 * aCapacity);
+        _lists = new IntLinkedLists(2 * aCapacity, 4);
+    }
+
+    static double bytesPerEntry(int aCapacity) {
+        // Ghosts take as many entries again
+        //
+        return 2 * (IntEntries.bytesPerEntry(2 * aCapacity) + IntLinkedLists.bytesPerEntry());
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int myEntry = _entries.find(aKey);
+        int myList = (myEntry == IntEntries.NONE) ? IntLinkedLists.NONE : _lists.listOf(myEntry);
+
+        switch (myList) {
+            case T1 :
+            case T2 :
+                _lists.moveToFront(T2, myEntry);
+                return true;
+
+            case B1 : {
+                int myB1 = _lists.size(B1);
+                int myB2 = _lists.size(B2);
+
+                _target = Math.min(_capacity, _target + Math.max(myB2 / myB1, 1));
+                replace(false);
+                _lists.moveToFront(T2, myEntry);
+                return false;
+            }
+
+            case B2 : {
+                int myB1 = _lists.size(B1);
+                int myB2 = _lists.size(B2);
+
+                _target = Math.max(0, _target - Math.max(myB1 / myB2, 1));
+                replace(true);
+                _lists.moveToFront(T2, myEntry);
+                return false;
+            }
+
+            default :
+                break;
+        }
+
+        int myT1 = _lists.size(T1);
+        int myL1 = myT1 + _lists.size(B1);
+        int myTotal = myL1 + _lists.size(T2) + _lists.size(B2);
+
+        if (myL1 == _capacity) {
+            if (myT1 < _capacity) {
+                discard(_lists.tail(B1));
+                replace(false);
+            } else {
+                discard(_lists.tail(T1));
+            }
+        } else if (myTotal >= _capacity) {
+            if (myTotal == 2 * _capacity)
+                discard(_lists.tail(B2));
+
+            replace(false);
+        }
+
+        _lists.pushFront(T1, _entries.add(aKey));
+
+        return false;
+    }
+
+    /**
+     * Evict from T1 or T2 into the matching ghost list according to the target
+     */
+    private void replace(boolean isGhostOfT2) {
+        int myT1 = _lists.size(T1);
+
+        if ((myT1 != 0) && ((myT1 > _target) || (isGhostOfT2 && (myT1 == _target))))
+            _lists.moveToFront(B1, _lists.tail(T1));
+        else
+            _lists.moveToFront(B2, _lists.tail(T2));
+    }
+
+    private void discard(int anEntry) {
+        _lists.unlink(anEntry);
+        _entries.remove(anEntry);
+    }
+}
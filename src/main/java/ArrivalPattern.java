@@ -0,0 +1,51 @@
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * The ways requests can arrive at an {@link LB}, selectable from the command line by name. All deliver the same
+ * number of requests per second on average.
+ */
+public enum ArrivalPattern {
+    // Spaced evenly across each second, to the millisecond
+    //
+    EVEN(1) {
+        ArrivalProcess create(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng) {
+            return new EvenArrivals(aReqsPerSec);
+        }
+    },
+
+    // Independent arrivals, exponentially distributed gaps
+    //
+    POISSON(ArrivalProcess.MICROS_PER_MILLI) {
+        ArrivalProcess create(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng) {
+            return new PoissonArrivals(aReqsPerSec, aRng);
+        }
+    },
+
+    // Poisson arrivals switching between bursts well above the mean rate and quiet periods below it
+    //
+    BURSTY(ArrivalProcess.MICROS_PER_MILLI) {
+        ArrivalProcess create(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng) {
+            return new OnOffArrivals(aReqsPerSec, aRng);
+        }
+    },
+
+    // Poisson arrivals whose rate follows a daily cycle, compressed into the run
+    //
+    DIURNAL(ArrivalProcess.MICROS_PER_MILLI) {
+        ArrivalProcess create(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng) {
+            return new DiurnalArrivals(aReqsPerSec, aRunSeconds, aRng);
+        }
+    };
+
+    private final int _ticksPerMilli;
+
+    ArrivalPattern(int aTicksPerMilli) {
+        _ticksPerMilli = aTicksPerMilli;
+    }
+
+    int getTicksPerMilli() {
+        return _ticksPerMilli;
+    }
+
+    abstract ArrivalProcess create(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng);
+}
@@ -0,0 +1,18 @@
+/**
+ * Generates the times at which an {@link LB} receives requests, a chunk at a time so the allocation loop only reads
+ * an array. Times are in ticks of a fraction of a millisecond (see {@link #ticksPerMilli()}) so that at high request
+ * rates arrivals close together remain distinct.
+ */
+interface ArrivalProcess {
+    int MICROS_PER_MILLI = 1000;
+
+    /**
+     * @return the resolution of the times generated, request durations and throttle scope must be scaled to match
+     */
+    int ticksPerMilli();
+
+    /**
+     * Fill the first <code>aCount</code> entries of <code>aTimes</code> with the next arrival times, in order
+     */
+    void fill(long[] aTimes, int aCount);
+}
@@ -1,7 +1,7 @@
 import org.apache.commons.math3.random.RandomGenerator;
-import sample.Bucket;
+import sample.IntBucket;
 
-class CacheKeyBucket implements Bucket<Integer> {
+class CacheKeyBucket implements IntBucket {
     private final int _id;
     private int _remaining;
 
@@ -11,7 +11,7 @@ class CacheKeyBucket implements Bucket<Integer> {
     }
 
     @Override
-    public Integer draw(RandomGenerator anRNG) {
+    public int drawInt(RandomGenerator anRNG) {
         --_remaining;
 
         return _id;
@@ -23,7 +23,7 @@ class CacheKeyBucket implements Bucket<Integer> {
     }
 
     @Override
-    public Bucket<Integer> copy() {
+    public IntBucket copy() {
         return new CacheKeyBucket(_id, _remaining);
     }
 
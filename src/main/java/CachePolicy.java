@@ -0,0 +1,111 @@
+/**
+ * The cache implementations {@link MonteCarloCache} can model, selectable from the command line by name.
+ */
+public enum CachePolicy {
+    // Exact LRU behind a single lock
+    //
+    LRU {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new LockedLruCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return MAP_ENTRY_BYTES;
+        }
+    },
+
+    // Approximate LRU with a lock per stripe
+    //
+    STRIPED_LRU {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new StripedLruCache(aSize, aConcurrency);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return MAP_ENTRY_BYTES;
+        }
+    },
+
+    // Exact LRU over primitive arrays
+    //
+    INT_LRU {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new IntLruCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return IntLruCache.bytesPerEntry(aSize);
+        }
+    },
+
+    // Least frequently used
+    //
+    LFU {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new LfuCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return LfuCache.bytesPerEntry(aSize);
+        }
+    },
+
+    // LRU window with frequency-filtered admission to a segmented LRU
+    //
+    TINY_LFU {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new TinyLfuCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return TinyLfuCache.bytesPerEntry(aSize);
+        }
+    },
+
+    // Adaptive replacement, balances recency and frequency
+    //
+    ARC {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new ArcCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return ArcCache.bytesPerEntry(aSize);
+        }
+    },
+
+    // Second chance approximation of LRU
+    //
+    CLOCK {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new ClockCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return ClockCache.bytesPerEntry(aSize);
+        }
+    },
+
+    // Small, main and ghost FIFO queues
+    //
+    S3_FIFO {
+        KeyCache create(int aSize, int aConcurrency) {
+            return new S3FifoCache(aSize);
+        }
+
+        double bytesPerEntry(int aSize) {
+            return S3FifoCache.bytesPerEntry(aSize);
+        }
+    };
+
+    // Rough cost of a LinkedHashMap entry (40) with a boxed key and value (16 each) and its share of the table
+    //
+    private static final double MAP_ENTRY_BYTES = 80;
+
+    abstract KeyCache create(int aSize, int aConcurrency);
+
+    /**
+     * @return approximate heap used per cached key
+     */
+    abstract double bytesPerEntry(int aSize);
+}
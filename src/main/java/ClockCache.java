@@ -0,0 +1,48 @@
+/**
+ * CLOCK (second chance): entries sit on a ring swept by a hand. A hit sets the entry's reference bit, on a miss
+ * the hand clears set bits as it passes and evicts the first entry it finds without one. An approximation of LRU
+ * whose hits don't reorder anything.
+ */
+class ClockCache implements KeyCache {
+    private final int _capacity;
+    private final IntEntries _entries;
+    private final boolean[] _referenced;
+    private int _hand = 0;
+
+    ClockCache(int aCapacity) {
+        _capacity = aCapacity;
+        _entries = new IntEntries(aCapacity);
+        _referenced = new boolean[aCapacity];
+    }
+
+    static double bytesPerEntry(int aCapacity) {
+        return IntEntries.bytesPerEntry(aCapacity) + 1;
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int myEntry = _entries.find(aKey);
+
+        if (myEntry != IntEntries.NONE) {
+            _referenced[myEntry] = true;
+            return true;
+        }
+
+        if (_entries.size() == _capacity) {
+            while (_referenced[_hand]) {
+                _referenced[_hand] = false;
+                _hand = (_hand + 1) % _capacity;
+            }
+
+            // The freed entry is the one reused below, so the new key takes the victim's place on the ring
+            //
+            _entries.remove(_hand);
+            _hand = (_hand + 1) % _capacity;
+        }
+
+        myEntry = _entries.add(aKey);
+        _referenced[myEntry] = false;
+
+        return false;
+    }
+}
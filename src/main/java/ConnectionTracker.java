@@ -0,0 +1,58 @@
+/**
+ * Counts a node's connections from the expiry time of each request sent to it and nothing else. A balancer that shares
+ * nodes with others keeps one of these per node for the requests it has sent itself, so choosing costs no throttle,
+ * window or tenant bookkeeping. Such a balancer learns a request was rejected only after sending it, so it can be
+ * withdrawn.
+ */
+class ConnectionTracker implements Connections {
+    // Expiry times of active requests (which can terminate millisecond by millisecond)
+    //
+    private final LongMinHeap _expiries = new LongMinHeap();
+
+    // Expiry times of requests since withdrawn, still among the above until culled alongside them
+    //
+    private final LongMinHeap _withdrawn = new LongMinHeap();
+    private long _culledTo = Long.MIN_VALUE;
+
+    void add(long anExpiry) {
+        _expiries.add(anExpiry);
+    }
+
+    /**
+     * Stop counting a request added earlier
+     */
+    void withdraw(long anExpiry) {
+        // Once culled it no longer counts anyway
+        //
+        if (anExpiry > _culledTo)
+            _withdrawn.add(anExpiry);
+    }
+
+    @Override
+    public int currentConnections(long aCurrentTime) {
+        // Heap yields earliest expiry first so first that hasn't expired means there will be no more
+        //
+        while ((!_expiries.isEmpty()) && (_expiries.peek() <= aCurrentTime))
+            _expiries.poll();
+
+        while ((!_withdrawn.isEmpty()) && (_withdrawn.peek() <= aCurrentTime))
+            _withdrawn.poll();
+
+        _culledTo = Math.max(_culledTo, aCurrentTime);
+
+        return activeConnections();
+    }
+
+    @Override
+    public int activeConnections() {
+        return _expiries.size() - _withdrawn.size();
+    }
+
+    /**
+     * @return possibly that of a withdrawn request, which is only ever early
+     */
+    @Override
+    public long nextExpiry() {
+        return _expiries.isEmpty() ? Long.MAX_VALUE : _expiries.peek();
+    }
+}
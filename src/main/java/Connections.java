@@ -0,0 +1,19 @@
+/**
+ * What a {@link NodeSelector} knows of a node: how many connections it has open and when the next of them finishes.
+ */
+interface Connections {
+    /**
+     * @return connections still open at <code>aCurrentTime</code>, which must not be earlier than any time asked before
+     */
+    int currentConnections(long aCurrentTime);
+
+    /**
+     * @return connections as of the last call to {@link #currentConnections}
+     */
+    int activeConnections();
+
+    /**
+     * @return the earliest time at which a connection finishes, <code>Long.MAX_VALUE</code> if there are none
+     */
+    long nextExpiry();
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Routes each request by hashing its key (the tenant, or a random key for untenanted requests) onto a ring of
+ * points, several per node in proportion to the node's weight. The first point at or after the hash owns the request.
+ * A table indexed by the top bits of the hash gives the first ring point of each range so a lookup examines one or two
+ * points rather than binary searching the ring.
+ */
+class ConsistentHash implements NodeSelector {
+    private static final int POINTS_PER_WEIGHT = 64;
+
+    private final List<? extends Connections> _nodes;
+    private final SplittableRandom _rng;
+
+    // Ring points in ascending order and the node each belongs to
+    //
+    private final int[] _points;
+    private final int[] _owners;
+
+    private final int[] _table;
+    private final int _shift;
+
+    ConsistentHash(List<? extends Connections> aNodes, Selection aSelection, SplittableRandom aRng) {
+        long[] myRing = new long[0];
+        int myCount = 0;
+
+        for (int i = 0; i < aNodes.size(); i++) {
+            int myPoints = Math.max(1, (int) Math.round(aSelection.weight(i) * POINTS_PER_WEIGHT));
+
+            if (myCount + myPoints > myRing.length)
+                myRing = Arrays.copyOf(myRing, Math.max(myRing.length * 2, myCount + myPoints));
+
+            // Point in the high half, owner in the low, so sorting orders by point
+            //
+            for (int j = 0; j < myPoints; j++)
+                myRing[myCount++] = ((long) hash(((long) i << 32) | j) << 32) | i;
+        }
+
+        myRing = Arrays.copyOf(myRing, myCount);
+        Arrays.sort(myRing);
+
+        _nodes = aNodes;
+        _rng = aRng;
+        _points = new int[myCount];
+        _owners = new int[myCount];
+
+        for (int i = 0; i < myCount; i++) {
+            _points[i] = (int) (myRing[i] >>> 32);
+            _owners[i] = (int) myRing[i];
+        }
+
+        // At least as many ranges as points keeps the expected scan per lookup to a point or two
+        //
+        int myBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(myCount - 1) + 1);
+
+        _shift = 32 - Math.min(myBits, 20);
+        _table = new int[1 << (32 - _shift)];
+
+        int myPoint = 0;
+
+        for (int i = 0; i < _table.length; i++) {
+            long myStart = ((long) i << _shift) + Integer.MIN_VALUE;
+
+            while ((myPoint < myCount) && (_points[myPoint] < myStart))
+                ++myPoint;
+
+            _table[i] = myPoint;
+        }
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        return select(aCurrentTime, TenantMix.NO_TENANT);
+    }
+
+    @Override
+    public int select(long aCurrentTime, int aKey) {
+        // Keys are hashed from values no ring point is but the 32 bit hashes can still collide, a key landing on a
+        // point belongs to that point's owner
+        //
+        int myHash = (aKey == TenantMix.NO_TENANT) ? _rng.nextInt() : hash(((long) aKey << 32) | 0xFFFFFFFFL);
+        int myPoint = _table[(myHash - Integer.MIN_VALUE) >>> _shift];
+
+        while ((myPoint < _points.length) && (_points[myPoint] < myHash))
+            ++myPoint;
+
+        int myChoice = _owners[(myPoint == _points.length) ? 0 : myPoint];
+
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+    }
+
+    // 64 bit finaliser (as SplittableRandom's), spreads consecutive values across the ring
+    //
+    private static int hash(long aValue) {
+        long myHash = aValue;
+
+        myHash = (myHash ^ (myHash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        myHash = (myHash ^ (myHash >>> 27)) * 0x94D049BB133111EBL;
+
+        return (int) ((myHash ^ (myHash >>> 31)) >>> 32);
+    }
+}
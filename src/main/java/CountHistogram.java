@@ -0,0 +1,79 @@
+/**
+ * Number of occurrences of each request count, typically the counts seen in fixed throttle windows. Because routing
+ * doesn't depend on the throttle limit, a histogram from one run answers how any limit would have fared: a window
+ * of n requests against a limit L breaches n - L times.
+ */
+class CountHistogram {
+    private long[] _occurrences;
+    private int _maxCount = 0;
+
+    CountHistogram() {
+        this(64);
+    }
+
+    private CountHistogram(int aCapacity) {
+        _occurrences = new long[aCapacity];
+    }
+
+    void record(int aCount) {
+        record(aCount, 1);
+    }
+
+    void record(int aCount, long anOccurrences) {
+        if (aCount >= _occurrences.length) {
+            long[] myOccurrences = new long[Math.max(_occurrences.length * 2, aCount + 1)];
+
+            System.arraycopy(_occurrences, 0, myOccurrences, 0, _occurrences.length);
+            _occurrences = myOccurrences;
+        }
+
+        _occurrences[aCount] += anOccurrences;
+        _maxCount = Math.max(_maxCount, aCount);
+    }
+
+    void add(CountHistogram aHistogram) {
+        for (int i = 0; i <= aHistogram._maxCount; i++)
+            if (aHistogram._occurrences[i] != 0)
+                record(i, aHistogram._occurrences[i]);
+    }
+
+    CountHistogram copy() {
+        CountHistogram myCopy = new CountHistogram(_occurrences.length);
+
+        System.arraycopy(_occurrences, 0, myCopy._occurrences, 0, _occurrences.length);
+        myCopy._maxCount = _maxCount;
+
+        return myCopy;
+    }
+
+    /**
+     * @return the largest count recorded, thus the lowest limit that would never have been exceeded
+     */
+    int maxCount() {
+        return _maxCount;
+    }
+
+    /**
+     * @return how many recorded counts exceed the limit
+     */
+    long countAbove(int aLimit) {
+        long myTotal = 0;
+
+        for (int i = Math.max(aLimit + 1, 0); i <= _maxCount; i++)
+            myTotal += _occurrences[i];
+
+        return myTotal;
+    }
+
+    /**
+     * @return the sum of each recorded count's excess over the limit
+     */
+    long excessOver(int aLimit) {
+        long myTotal = 0;
+
+        for (int i = Math.max(aLimit + 1, 0); i <= _maxCount; i++)
+            myTotal += _occurrences[i] * (i - aLimit);
+
+        return myTotal;
+    }
+}
@@ -0,0 +1,91 @@
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Converts a CSV access log of arrival time and duration, both in milliseconds, to the binary form
+ * {@link MonteCarloLB} replays with <code>--replay</code>. Rows must be in arrival order and a leading header row is
+ * skipped. Fractional durations are rounded to the nearest millisecond.
+ *
+ *     java -classpath $(cat cp.txt):target/classes CsvToRequestLog -t0 -u3 access.csv access.rlog
+ */
+public class CsvToRequestLog {
+    private static final Pattern SEPARATOR = Pattern.compile(",");
+
+    private static class Configuration {
+        private final OptionParser myOp = new OptionParser();
+
+        final OptionSpec<Integer> _timeColumnParam = myOp.accepts("t").withOptionalArg().ofType(Integer.class).defaultsTo(0);
+        final OptionSpec<Integer> _durationColumnParam = myOp.accepts("u").withOptionalArg().ofType(Integer.class).defaultsTo(1);
+        final OptionSpec<String> _files = myOp.nonOptions().ofType(String.class);
+
+        OptionSet produce(String[] anArgs) {
+            return myOp.parse(anArgs);
+        }
+    }
+
+    public static void main(String[] anArgs) throws IOException {
+        Configuration myConfig = new Configuration();
+        OptionSet myOptions = myConfig.produce(anArgs);
+        List<String> myFiles = myConfig._files.values(myOptions);
+
+        if (myFiles.size() != 2) {
+            System.err.println("Usage: CsvToRequestLog [-t<time column>] [-u<duration column>] <csv> <request log>");
+            System.exit(1);
+        }
+
+        try (BufferedReader myReader = Files.newBufferedReader(Paths.get(myFiles.get(0)), StandardCharsets.UTF_8);
+             RequestLogWriter myWriter = new RequestLogWriter(Paths.get(myFiles.get(1)))) {
+            convert(myReader, myWriter, myConfig._timeColumnParam.value(myOptions),
+                    myConfig._durationColumnParam.value(myOptions));
+
+            System.out.println("Converted " + myWriter.getCount() + " requests");
+        }
+    }
+
+    static void convert(BufferedReader aReader, RequestLogWriter aWriter, int aTimeColumn, int aDurationColumn)
+            throws IOException {
+        String myLine;
+        long myLineNumber = 0;
+
+        while ((myLine = aReader.readLine()) != null) {
+            ++myLineNumber;
+
+            if (myLine.isEmpty())
+                continue;
+
+            String[] myFields = SEPARATOR.split(myLine, -1);
+
+            if ((myFields.length <= aTimeColumn) || (myFields.length <= aDurationColumn))
+                throw new IOException("Line " + myLineNumber + " has too few columns: " + myLine);
+
+            long myTime;
+            int myDuration;
+
+            try {
+                myTime = Long.parseLong(myFields[aTimeColumn].trim());
+                myDuration = (int) Math.round(Double.parseDouble(myFields[aDurationColumn].trim()));
+            } catch (NumberFormatException anE) {
+                if (myLineNumber == 1)
+                    continue;
+
+                throw new IOException("Line " + myLineNumber + " isn't numeric: " + myLine, anE);
+            }
+
+            try {
+                aWriter.append(myTime, myDuration);
+            } catch (IllegalArgumentException anE) {
+                throw new IOException("Line " + myLineNumber + ": " + anE.getMessage() +
+                        " (sort by time first, eg sort -t, -k1,1n)", anE);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Poisson arrivals whose rate rises from a trough to a peak and back once over the run, as traffic does over a day.
+ * Generated by thinning arrivals at the peak rate. Microsecond resolution.
+ */
+class DiurnalArrivals implements ArrivalProcess {
+    // Peak and trough are this fraction above and below the mean
+    //
+    private static final double AMPLITUDE = 0.5;
+
+    private final double _peakGap;
+    private final double _radiansPerTick;
+    private final RandomGenerator _rng;
+    private double _time = 0;
+
+    DiurnalArrivals(int aReqsPerSec, int aRunSeconds, RandomGenerator aRng) {
+        if (aReqsPerSec <= 0)
+            throw new IllegalArgumentException("Requests per Second must be > 0");
+
+        _peakGap = 1000.0 * MICROS_PER_MILLI / (aReqsPerSec * (1 + AMPLITUDE));
+        _radiansPerTick = 2 * Math.PI / (Math.max(aRunSeconds, 1) * 1000.0 * MICROS_PER_MILLI);
+        _rng = aRng;
+    }
+
+    @Override
+    public int ticksPerMilli() {
+        return MICROS_PER_MILLI;
+    }
+
+    @Override
+    public void fill(long[] aTimes, int aCount) {
+        for (int i = 0; i < aCount; i++) {
+            // Keep a peak rate arrival with probability of the current rate relative to the peak
+            //
+            do {
+                _time += PoissonArrivals.exponential(_rng, _peakGap);
+            } while (_rng.nextDouble() * (1 + AMPLITUDE) > 1 - AMPLITUDE * Math.cos(_time * _radiansPerTick));
+
+            aTimes[i] = (long) _time;
+        }
+    }
+}
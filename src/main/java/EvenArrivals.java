@@ -0,0 +1,44 @@
+/**
+ * Scatters requests evenly across each second of runtime, millisecond by millisecond.
+ */
+class EvenArrivals implements ArrivalProcess {
+    private final int _reqsPerSec;
+    private final double _millisPerReq;
+    private long _currentTick = 0; // In seconds
+    private int _reqCount = 0;
+
+    /**
+     * @param aReqsPerSec must be > 0
+     */
+    EvenArrivals(int aReqsPerSec) {
+        if (aReqsPerSec <= 0)
+            throw new IllegalArgumentException("Requests per Second must be > 0");
+
+        _reqsPerSec = aReqsPerSec;
+        _millisPerReq = 1000.0 / aReqsPerSec;
+    }
+
+    @Override
+    public int ticksPerMilli() {
+        return 1;
+    }
+
+    @Override
+    public void fill(long[] aTimes, int aCount) {
+        for (int i = 0; i < aCount; i++) {
+            // Current time is a second + the request index for that second / the reqs per milli -
+            // allocate a request down to milliseconds
+            //
+            aTimes[i] = Math.round((_currentTick * 1000) + (_reqCount * _millisPerReq));
+
+            ++_reqCount;
+
+            // If we're done with requests for this second, start on the next
+            //
+            if (_reqCount == _reqsPerSec) {
+                ++_currentTick;
+                _reqCount = 0;
+            }
+        }
+    }
+}
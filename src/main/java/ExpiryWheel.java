@@ -0,0 +1,150 @@
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of request expiries, one slot per millisecond whatever the ticks times are in. Each entry records
+ * the node the request was running on so that, as time advances, nodes can be told exactly when their connections
+ * finish. Entries within a slot still fire at their own tick, the slot of the current millisecond being revisited
+ * until the millisecond is over. Expiries further out than the wheel's span share a slot with nearer ones and are
+ * simply passed over until their time comes.
+ */
+class ExpiryWheel {
+    interface Listener {
+        void expired(int aNode);
+    }
+
+    private static final int INITIAL_SLOT_CAPACITY = 4;
+
+    private final int _mask;
+    private final int _ticksPerMilli;
+    private final long[][] _expiries;
+    private final int[][] _nodes;
+    private final int[] _counts;
+
+    // Earliest expiry in each slot, so a slot with nothing yet due is passed over without looking at its entries
+    //
+    private final long[] _earliest;
+    private final Listener _listener;
+
+    private long _now = Long.MIN_VALUE;
+    private int _pending = 0;
+
+    /**
+     * @param aSlots rounded up to a power of two, ideally more than the longest request in milliseconds
+     * @param aTicksPerMilli the resolution of the times given, expiries and the current time must not be negative
+     */
+    ExpiryWheel(int aSlots, int aTicksPerMilli, Listener aListener) {
+        int mySlots = Integer.highestOneBit(Math.max(aSlots - 1, 1)) << 1;
+
+        _mask = mySlots - 1;
+        _ticksPerMilli = aTicksPerMilli;
+        _expiries = new long[mySlots][INITIAL_SLOT_CAPACITY];
+        _nodes = new int[mySlots][INITIAL_SLOT_CAPACITY];
+        _counts = new int[mySlots];
+        _earliest = new long[mySlots];
+        Arrays.fill(_earliest, Long.MAX_VALUE);
+        _listener = aListener;
+    }
+
+    void schedule(long anExpiry, int aNode) {
+        if (anExpiry <= _now) {
+            _listener.expired(aNode);
+            return;
+        }
+
+        int mySlot = (int) ((anExpiry / _ticksPerMilli) & _mask);
+        int myCount = _counts[mySlot];
+
+        if (myCount == _nodes[mySlot].length) {
+            _expiries[mySlot] = Arrays.copyOf(_expiries[mySlot], myCount * 2);
+            _nodes[mySlot] = Arrays.copyOf(_nodes[mySlot], myCount * 2);
+        }
+
+        _expiries[mySlot][myCount] = anExpiry;
+        _nodes[mySlot][myCount] = aNode;
+        _counts[mySlot] = myCount + 1;
+        _earliest[mySlot] = Math.min(_earliest[mySlot], anExpiry);
+        ++_pending;
+    }
+
+    /**
+     * Drop an entry without firing it
+     *
+     * @return <code>false</code> if there was none, it having fired already
+     */
+    boolean cancel(long anExpiry, int aNode) {
+        if (anExpiry <= _now)
+            return false;
+
+        int mySlot = (int) ((anExpiry / _ticksPerMilli) & _mask);
+        long[] myExpiries = _expiries[mySlot];
+        int[] myNodes = _nodes[mySlot];
+        int myLast = _counts[mySlot] - 1;
+
+        // Order within a slot doesn't matter, the earliest expiry is only ever a lower bound
+        //
+        for (int i = 0; i <= myLast; i++) {
+            if ((myExpiries[i] == anExpiry) && (myNodes[i] == aNode)) {
+                myExpiries[i] = myExpiries[myLast];
+                myNodes[i] = myNodes[myLast];
+                _counts[mySlot] = myLast;
+                --_pending;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Fire every entry whose expiry is at or before <code>aCurrentTime</code>
+     */
+    void advance(long aCurrentTime) {
+        if (aCurrentTime <= _now)
+            return;
+
+        if (_pending != 0) {
+            long myLast = aCurrentTime / _ticksPerMilli;
+
+            // The millisecond we were last in may have entries still to fire, unless we'd reached its final tick
+            //
+            long myFirst = (_now == Long.MIN_VALUE) ? myLast - _mask : (_now + 1) / _ticksPerMilli;
+
+            // A gap of a full rotation or more means every slot needs looking at, once
+            //
+            if (myLast - myFirst > _mask)
+                myFirst = myLast - _mask;
+
+            for (long myMilli = myFirst; (myMilli <= myLast) && (_pending != 0); myMilli++)
+                fire((int) (myMilli & _mask), aCurrentTime);
+        }
+
+        _now = aCurrentTime;
+    }
+
+    private void fire(int aSlot, long aCurrentTime) {
+        if (_earliest[aSlot] > aCurrentTime)
+            return;
+
+        long[] myExpiries = _expiries[aSlot];
+        int[] myNodes = _nodes[aSlot];
+        int myCount = _counts[aSlot];
+        int myKept = 0;
+        long myEarliest = Long.MAX_VALUE;
+
+        for (int i = 0; i < myCount; i++) {
+            if (myExpiries[i] <= aCurrentTime) {
+                --_pending;
+                _listener.expired(myNodes[i]);
+            } else {
+                myExpiries[myKept] = myExpiries[i];
+                myNodes[myKept] = myNodes[i];
+                myEarliest = Math.min(myEarliest, myExpiries[i]);
+                ++myKept;
+            }
+        }
+
+        _counts[aSlot] = myKept;
+        _earliest[aSlot] = myEarliest;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Counts requests in the current aligned window, breaching any beyond the maximum.
+ */
+class FixedWindowThrottle implements Throttle {
+    private final int _max;
+    private final long _scope;
+    private long _window = -1;
+    private int _count = 0;
+
+    FixedWindowThrottle(ThrottlePolicy aPolicy) {
+        _max = aPolicy.getMax();
+        _scope = aPolicy.getScopeMillis();
+    }
+
+    @Override
+    public boolean breaches(long aCurrentTime) {
+        long myWindow = aCurrentTime / _scope;
+
+        if (myWindow != _window) {
+            _window = myWindow;
+            _count = 0;
+        }
+
+        if (_count >= _max)
+            return true;
+
+        ++_count;
+        return false;
+    }
+
+    @Override
+    public int inScope() {
+        return _count;
+    }
+}
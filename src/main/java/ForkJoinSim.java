@@ -0,0 +1,263 @@
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well44497b;
+import sample.AliasTable;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+import sample.Sampling;
+import sample.SplittableGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs one cache simulation on a {@link ForkJoinPool}. Keys are drawn in large chunks, each chunk is routed to caches
+ * by a generator split from the sim's seed and every cache then replays its share of the chunk, in stream order, as
+ * its own task. No cache is ever touched by two tasks at once so the outcome for a seed is the same whatever the
+ * size of the pool.
+ *
+ * Sampling without replacement depends on every key drawn before so the keys are drawn on the calling thread. With
+ * replacement each key is independent of the rest so chunks are drawn in the pool, a batch at a time ahead of the
+ * chunks being replayed, each with its own generator split from the sim's seed in chunk order.
+ */
+class ForkJoinSim implements MonteCarloCache.CacheSim {
+    private static final int CHUNK_SIZE = 65536;
+
+    private final ForkJoinPool _pool;
+    private final IntBucketConsumer _consumer;
+    private final SplittableRandom _router;
+
+    // Drawing with replacement: the buckets, the table choosing between them in proportion to the samples each
+    // started with and how many samples are still to be drawn
+    //
+    private final IntBucket[] _templates;
+    private final AliasTable _table;
+    private final SplittableRandom _drawer;
+    private long _undrawn;
+    private final KeyCache[] _caches;
+    private final int[] _hits;
+    private final int[] _misses;
+
+    // Only one chunk is ever in flight so its routing scratch space can be shared
+    //
+    private final int[] _routes = new int[CHUNK_SIZE];
+    private final int[] _routed = new int[CHUNK_SIZE];
+
+    ForkJoinSim(ForkJoinPool aPool, int aNumCaches, CachePolicy aPolicy, int aCacheSize, IntBucket[] aBuckets,
+                Sampling aSampling, long aSeed) {
+        RandomGenerator myRng = new Well44497b(aSeed);
+
+        _pool = aPool;
+
+        if (aSampling == Sampling.WITH_REPLACEMENT) {
+            int[] myCounts = new int[aBuckets.length];
+
+            for (int i = 0; i < aBuckets.length; i++) {
+                myCounts[i] = aBuckets[i].numRemaining();
+                _undrawn += myCounts[i];
+            }
+
+            _consumer = null;
+            _templates = aBuckets;
+            _table = AliasTable.of(myCounts);
+        } else {
+            _consumer = new IntBucketConsumer(aBuckets, myRng, aSampling);
+            _templates = null;
+            _table = null;
+        }
+
+        _router = new SplittableRandom(myRng.nextLong());
+        _drawer = new SplittableRandom(myRng.nextLong());
+        _caches = new KeyCache[aNumCaches];
+        _hits = new int[aNumCaches];
+        _misses = new int[aNumCaches];
+
+        // Each cache has a single owner at any moment
+        //
+        for (int i = 0; i < aNumCaches; i++)
+            _caches[i] = aPolicy.create(aCacheSize, 1);
+    }
+
+    @Override
+    public void invoke() throws Exception {
+        if (_consumer == null)
+            invokeDrawn();
+        else
+            invokeConsumed();
+    }
+
+    private void invokeConsumed() throws Exception {
+        int[] myKeys = new int[CHUNK_SIZE];
+        int[] myNext = new int[CHUNK_SIZE];
+        Future<?> myPending = null;
+        int myCount;
+
+        // Draw the next chunk whilst the pool works through the previous one
+        //
+        do {
+            myCount = _consumer.fill(myKeys);
+
+            if (myPending != null)
+                myPending.get();
+
+            myPending = (myCount > 0) ? _pool.submit(new Chunk(myKeys, myCount, _router.split())) : null;
+
+            int[] mySwap = myKeys;
+            myKeys = myNext;
+            myNext = mySwap;
+        } while (myCount == CHUNK_SIZE);
+
+        if (myPending != null)
+            myPending.get();
+    }
+
+    private void invokeDrawn() throws Exception {
+        List<Draw> myDrawn = Collections.emptyList();
+
+        // Draw the next batch whilst the current one is replayed, a batch being a chunk per worker
+        //
+        do {
+            List<Draw> myNext = new ArrayList<>();
+
+            while ((_undrawn > 0) && (myNext.size() < _pool.getParallelism())) {
+                int myCount = (int) Math.min(_undrawn, CHUNK_SIZE);
+
+                myNext.add(new Draw(myCount, _drawer.split()));
+                _undrawn -= myCount;
+            }
+
+            Future<?> myPending = myNext.isEmpty() ? null : _pool.submit(() -> ForkJoinTask.invokeAll(myNext));
+
+            for (Draw myDraw : myDrawn)
+                _pool.invoke(new Chunk(myDraw._keys, myDraw._keys.length, _router.split()));
+
+            if (myPending != null)
+                myPending.get();
+
+            myDrawn = myNext;
+        } while (!myDrawn.isEmpty());
+    }
+
+    @Override
+    public int getHits() {
+        int myTotal = 0;
+
+        for (int myHits : _hits)
+            myTotal += myHits;
+
+        return myTotal;
+    }
+
+    @Override
+    public int getMisses() {
+        int myTotal = 0;
+
+        for (int myMisses : _misses)
+            myTotal += myMisses;
+
+        return myTotal;
+    }
+
+    private class Chunk extends RecursiveAction {
+        private final int[] _keys;
+        private final int _count;
+        private final SplittableRandom _rng;
+
+        Chunk(int[] aKeys, int aCount, SplittableRandom aRng) {
+            _keys = aKeys;
+            _count = aCount;
+            _rng = aRng;
+        }
+
+        @Override
+        protected void compute() {
+            int[] myOffsets = new int[_caches.length + 1];
+
+            for (int i = 0; i < _count; i++) {
+                int myCache = _rng.nextInt(_caches.length);
+
+                _routes[i] = myCache;
+                ++myOffsets[myCache + 1];
+            }
+
+            for (int i = 0; i < _caches.length; i++)
+                myOffsets[i + 1] += myOffsets[i];
+
+            // Group keys by cache, preserving stream order within each group
+            //
+            int[] myPositions = myOffsets.clone();
+
+            for (int i = 0; i < _count; i++)
+                _routed[myPositions[_routes[i]]++] = _keys[i];
+
+            List<Replay> myReplays = new ArrayList<>();
+
+            for (int i = 0; i < _caches.length; i++)
+                if (myOffsets[i + 1] > myOffsets[i])
+                    myReplays.add(new Replay(i, myOffsets[i], myOffsets[i + 1]));
+
+            ForkJoinTask.invokeAll(myReplays);
+        }
+    }
+
+    private class Draw extends RecursiveAction {
+        private final int[] _keys;
+        private final SplittableRandom _rng;
+
+        Draw(int aCount, SplittableRandom aRng) {
+            _keys = new int[aCount];
+            _rng = aRng;
+        }
+
+        @Override
+        protected void compute() {
+            // The templates are shared so buckets are copied as they're first chosen and replenished once dry, as
+            // with IntBucketConsumer
+            //
+            IntBucket[] myBuckets = new IntBucket[_templates.length];
+            RandomGenerator myRng = new SplittableGenerator(_rng);
+
+            for (int i = 0; i < _keys.length; i++) {
+                int myChoice = _table.choose(_rng);
+                IntBucket myBucket = myBuckets[myChoice];
+
+                if ((myBucket == null) || (myBucket.numRemaining() == 0))
+                    myBuckets[myChoice] = myBucket = _templates[myChoice].copy();
+
+                _keys[i] = myBucket.drawInt(myRng);
+            }
+        }
+    }
+
+    private class Replay extends RecursiveAction {
+        private final int _cache;
+        private final int _from;
+        private final int _to;
+
+        Replay(int aCache, int aFrom, int aTo) {
+            _cache = aCache;
+            _from = aFrom;
+            _to = aTo;
+        }
+
+        @Override
+        protected void compute() {
+            KeyCache myCache = _caches[_cache];
+            int myHits = 0;
+
+            for (int i = _from; i < _to; i++)
+                if (myCache.access(_routed[i]))
+                    ++myHits;
+
+            _hits[_cache] += myHits;
+            _misses[_cache] += (_to - _from) - myHits;
+
+            SimMetrics.INSTANCE.requests(_to - _from, myHits);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Count-min sketch of access frequencies with periodic aging, as used by TinyLFU. Four rows of small saturating
+ * counters; an estimate is the minimum across rows. After a sample of ten times the cache's capacity all counters
+ * are halved so that history fades.
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97CB3127, 0x9E3779B9, 0x7FEB352D, 0x846CA68B};
+
+    private final byte[] _counters;
+    private final int _mask;
+    private final int _sampleSize;
+    private int _additions = 0;
+
+    FrequencySketch(int aCapacity) {
+        int myWidth = Integer.highestOneBit(Math.max(aCapacity, 8) - 1) << 1;
+
+        _counters = new byte[DEPTH * myWidth];
+        _mask = myWidth - 1;
+        _sampleSize = 10 * Math.max(aCapacity, 1);
+    }
+
+    static double bytesPerEntry() {
+        return DEPTH * 2.0;
+    }
+
+    int frequency(int aKey) {
+        int myMin = MAX_COUNT;
+
+        for (int i = 0; i < DEPTH; i++)
+            myMin = Math.min(myMin, _counters[indexOf(aKey, i)]);
+
+        return myMin;
+    }
+
+    void increment(int aKey) {
+        boolean wasAdded = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+            int myIndex = indexOf(aKey, i);
+
+            if (_counters[myIndex] < MAX_COUNT) {
+                ++_counters[myIndex];
+                wasAdded = true;
+            }
+        }
+
+        if (wasAdded && (++_additions == _sampleSize))
+            age();
+    }
+
+    private void age() {
+        for (int i = 0; i < _counters.length; i++)
+            _counters[i] >>= 1;
+
+        _additions >>= 1;
+    }
+
+    private int indexOf(int aKey, int aRow) {
+        int myHash = (aKey + aRow) * SEEDS[aRow];
+
+        return (aRow * (_mask + 1)) + ((myHash ^ (myHash >>> 16)) & _mask);
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over the integers {@code [0, capacity)} each with an associated long key. Unlike a
+ * {@link java.util.PriorityQueue} an index's position is tracked so its key can be changed in O(log n).
+ */
+class IndexedMinHeap {
+    private final int[] _heap;
+    private final int[] _positions;
+    private final long[] _keys;
+    private int _size = 0;
+
+    IndexedMinHeap(int aCapacity) {
+        _heap = new int[aCapacity];
+        _positions = new int[aCapacity];
+        _keys = new long[aCapacity];
+
+        Arrays.fill(_positions, -1);
+    }
+
+    /**
+     * @return the index with the smallest key, heap must not be empty
+     */
+    int peek() {
+        if (_size == 0)
+            throw new IllegalStateException("Heap is empty");
+
+        return _heap[0];
+    }
+
+    long peekKey() {
+        return _keys[peek()];
+    }
+
+    /**
+     * Insert the index if it's not present, otherwise change its key
+     */
+    void set(int anIndex, long aKey) {
+        int myPos = _positions[anIndex];
+
+        if (myPos == -1) {
+            _keys[anIndex] = aKey;
+            _heap[_size] = anIndex;
+            _positions[anIndex] = _size;
+            siftUp(_size++);
+        } else {
+            long myOld = _keys[anIndex];
+            _keys[anIndex] = aKey;
+
+            if (aKey < myOld)
+                siftUp(myPos);
+            else if (aKey > myOld)
+                siftDown(myPos);
+        }
+    }
+
+    private void siftUp(int aPos) {
+        int myIndex = _heap[aPos];
+        long myKey = _keys[myIndex];
+
+        while (aPos > 0) {
+            int myParent = (aPos - 1) >>> 1;
+
+            if (_keys[_heap[myParent]] <= myKey)
+                break;
+
+            move(_heap[myParent], aPos);
+            aPos = myParent;
+        }
+
+        move(myIndex, aPos);
+    }
+
+    private void siftDown(int aPos) {
+        int myIndex = _heap[aPos];
+        long myKey = _keys[myIndex];
+        int myHalf = _size >>> 1;
+
+        while (aPos < myHalf) {
+            int myChild = (aPos << 1) + 1;
+            int myRight = myChild + 1;
+
+            if ((myRight < _size) && (_keys[_heap[myRight]] < _keys[_heap[myChild]]))
+                myChild = myRight;
+
+            if (myKey <= _keys[_heap[myChild]])
+                break;
+
+            move(_heap[myChild], aPos);
+            aPos = myChild;
+        }
+
+        move(myIndex, aPos);
+    }
+
+    private void move(int anIndex, int aPos) {
+        _heap[aPos] = anIndex;
+        _positions[anIndex] = aPos;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Fixed pool of entries for int keyed caches. Allocates entry indexes, remembers each one's key and finds entries by
+ * key. Freed entries are reused most recently freed first.
+ */
+class IntEntries {
+    static final int NONE = -1;
+
+    private final int[] _keys;
+    private final int[] _free;
+    private final IntIntMap _index;
+    private int _freeCount = 0;
+    private int _unused = 0;
+
+    IntEntries(int aCapacity) {
+        _keys = new int[aCapacity];
+        _free = new int[aCapacity];
+        _index = new IntIntMap(aCapacity);
+    }
+
+    /**
+     * @return bytes of array storage per entry for a pool of the given capacity
+     */
+    static double bytesPerEntry(int aCapacity) {
+        return (2.0 * Integer.BYTES) + IntIntMap.bytesPerEntry(aCapacity);
+    }
+
+    int size() {
+        return _index.size();
+    }
+
+    /**
+     * @return the entry holding the key, or {@link #NONE}
+     */
+    int find(int aKey) {
+        return _index.get(aKey);
+    }
+
+    int keyOf(int anEntry) {
+        return _keys[anEntry];
+    }
+
+    int add(int aKey) {
+        int myEntry;
+
+        if (_freeCount != 0)
+            myEntry = _free[--_freeCount];
+        else if (_unused < _keys.length)
+            myEntry = _unused++;
+        else
+            throw new IllegalStateException("No free entries");
+
+        _keys[myEntry] = aKey;
+        _index.put(aKey, myEntry);
+
+        return myEntry;
+    }
+
+    void remove(int anEntry) {
+        _index.remove(_keys[anEntry]);
+        _free[_freeCount++] = anEntry;
+    }
+}
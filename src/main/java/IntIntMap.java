@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressed (linear probing) map from int keys to non-negative int values with no per-entry objects.
+ * Sized for a fixed maximum number of entries at a load of one half or less.
+ */
+class IntIntMap {
+    static final int ABSENT = -1;
+
+    private final int[] _keys;
+    private final int[] _values;
+    private final int _mask;
+    private final int _maxSize;
+    private int _size = 0;
+
+    IntIntMap(int aMaxSize) {
+        int mySlots = slotsFor(aMaxSize);
+
+        _keys = new int[mySlots];
+        _values = new int[mySlots];
+        _mask = mySlots - 1;
+        _maxSize = aMaxSize;
+
+        Arrays.fill(_values, ABSENT);
+    }
+
+    static int slotsFor(int aMaxSize) {
+        return Integer.highestOneBit(Math.max(aMaxSize, 1)) << 2;
+    }
+
+    /**
+     * @return bytes of array storage per entry for a map of the given maximum size
+     */
+    static double bytesPerEntry(int aMaxSize) {
+        return 2.0 * Integer.BYTES * slotsFor(aMaxSize) / Math.max(aMaxSize, 1);
+    }
+
+    int size() {
+        return _size;
+    }
+
+    int get(int aKey) {
+        return _values[slotFor(aKey)];
+    }
+
+    void put(int aKey, int aValue) {
+        int mySlot = slotFor(aKey);
+
+        if (_values[mySlot] == ABSENT) {
+            if (_size == _maxSize)
+                throw new IllegalStateException("Map is full");
+
+            ++_size;
+            _keys[mySlot] = aKey;
+        }
+
+        _values[mySlot] = aValue;
+    }
+
+    /**
+     * @return the value the key had, or {@link #ABSENT}
+     */
+    int remove(int aKey) {
+        int myGap = slotFor(aKey);
+        int myValue = _values[myGap];
+
+        if (myValue == ABSENT)
+            return ABSENT;
+
+        // Backward shift deletion, keeps probe sequences intact without tombstones
+        //
+        int mySlot = myGap;
+
+        while (true) {
+            mySlot = (mySlot + 1) & _mask;
+
+            if (_values[mySlot] == ABSENT)
+                break;
+
+            int myHome = hash(_keys[mySlot]) & _mask;
+
+            // Move the entry into the gap unless its home lies cyclically between the gap and where it sits
+            //
+            if (((mySlot - myHome) & _mask) >= ((mySlot - myGap) & _mask)) {
+                _keys[myGap] = _keys[mySlot];
+                _values[myGap] = _values[mySlot];
+                myGap = mySlot;
+            }
+        }
+
+        _values[myGap] = ABSENT;
+        --_size;
+
+        return myValue;
+    }
+
+    private int slotFor(int aKey) {
+        int mySlot = hash(aKey) & _mask;
+
+        while ((_values[mySlot] != ABSENT) && (_keys[mySlot] != aKey))
+            mySlot = (mySlot + 1) & _mask;
+
+        return mySlot;
+    }
+
+    private static int hash(int aKey) {
+        int myHash = aKey * 0x9E3779B9;
+
+        return myHash ^ (myHash >>> 16);
+    }
+}
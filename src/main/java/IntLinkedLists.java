@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * A set of intrusive doubly-linked lists over entry indexes <code>[0, capacity)</code>, each entry being on at most
+ * one list at a time. Lists are numbered from zero, the head is the most recent insertion and the tail the oldest,
+ * serving as either LRU lists or FIFO queues.
+ */
+class IntLinkedLists {
+    static final int NONE = -1;
+
+    private final int[] _prev;
+    private final int[] _next;
+    private final int[] _owner;
+    private final int[] _heads;
+    private final int[] _tails;
+    private final int[] _sizes;
+
+    IntLinkedLists(int aCapacity, int aNumLists) {
+        _prev = new int[aCapacity];
+        _next = new int[aCapacity];
+        _owner = new int[aCapacity];
+        _heads = new int[aNumLists];
+        _tails = new int[aNumLists];
+        _sizes = new int[aNumLists];
+
+        Arrays.fill(_owner, NONE);
+        Arrays.fill(_heads, NONE);
+        Arrays.fill(_tails, NONE);
+    }
+
+    static double bytesPerEntry() {
+        return 3.0 * Integer.BYTES;
+    }
+
+    /**
+     * @return the list the entry is on or {@link #NONE}
+     */
+    int listOf(int anEntry) {
+        return _owner[anEntry];
+    }
+
+    int size(int aList) {
+        return _sizes[aList];
+    }
+
+    int tail(int aList) {
+        return _tails[aList];
+    }
+
+    void pushFront(int aList, int anEntry) {
+        int myHead = _heads[aList];
+
+        _prev[anEntry] = NONE;
+        _next[anEntry] = myHead;
+        _owner[anEntry] = aList;
+
+        if (myHead == NONE)
+            _tails[aList] = anEntry;
+        else
+            _prev[myHead] = anEntry;
+
+        _heads[aList] = anEntry;
+        ++_sizes[aList];
+    }
+
+    /**
+     * Move an entry to the head of the given list, removing it from whichever it's on
+     */
+    void moveToFront(int aList, int anEntry) {
+        if (_heads[aList] == anEntry)
+            return;
+
+        unlink(anEntry);
+        pushFront(aList, anEntry);
+    }
+
+    void unlink(int anEntry) {
+        int myList = _owner[anEntry];
+
+        if (myList == NONE)
+            return;
+
+        int myPrev = _prev[anEntry];
+        int myNext = _next[anEntry];
+
+        if (myPrev == NONE)
+            _heads[myList] = myNext;
+        else
+            _next[myPrev] = myNext;
+
+        if (myNext == NONE)
+            _tails[myList] = myPrev;
+        else
+            _prev[myNext] = myPrev;
+
+        _owner[anEntry] = NONE;
+        --_sizes[myList];
+    }
+}
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Exact LRU over primitive int keys with no per-entry objects. Entries live in parallel arrays linked into a
+ * doubly-linked recency list by index and are found through an open-addressed (linear probing) table of entry
+ * indexes. Costs 20-28 bytes per entry (see {@link #bytesPerEntry(int)}) versus 80 or so for a
+ * {@link java.util.LinkedHashMap} entry with boxed key and value.
+ */
+class IntLruCache implements KeyCache {
+    private static final int NONE = -1;
+
+    private final int _capacity;
+    private final int[] _keys;
+    private final int[] _prev;
+    private final int[] _next;
+    private final int[] _table;
+    private final int _mask;
+
+    private int _size = 0;
+    private int _head = NONE; // Most recently used
+    private int _tail = NONE; // Least recently used
+
+    IntLruCache(int aCapacity) {
+        if (aCapacity < 1)
+            throw new IllegalArgumentException("Capacity must be > 0");
+
+        _capacity = aCapacity;
+        _keys = new int[aCapacity];
+        _prev = new int[aCapacity];
+        _next = new int[aCapacity];
+        _table = new int[tableSize(aCapacity)];
+        _mask = _table.length - 1;
+
+        Arrays.fill(_table, NONE);
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int mySlot = slotFor(aKey);
+        int myEntry = _table[mySlot];
+
+        if (myEntry != NONE) {
+            if (myEntry != _head) {
+                unlink(myEntry);
+                pushFront(myEntry);
+            }
+
+            return true;
+        }
+
+        if (_size < _capacity) {
+            myEntry = _size++;
+        } else {
+            // Recycle the least recently used entry, its removal may shuffle the table so look again
+            //
+            myEntry = _tail;
+            unlink(myEntry);
+            remove(slotFor(_keys[myEntry]));
+            mySlot = slotFor(aKey);
+        }
+
+        _keys[myEntry] = aKey;
+        _table[mySlot] = myEntry;
+        pushFront(myEntry);
+
+        return false;
+    }
+
+    synchronized int size() {
+        return _size;
+    }
+
+    // Keep the table's load at or below one half
+    //
+    private static int tableSize(int aCapacity) {
+        return Integer.highestOneBit(aCapacity) << 2;
+    }
+
+    /**
+     * @return bytes of array storage per entry for a cache of the given capacity
+     */
+    static double bytesPerEntry(int aCapacity) {
+        return (3.0 * aCapacity + tableSize(aCapacity)) * Integer.BYTES / aCapacity;
+    }
+
+    /**
+     * @return the slot holding the key, or the empty slot where it would go
+     */
+    private int slotFor(int aKey) {
+        int mySlot = hash(aKey) & _mask;
+
+        while ((_table[mySlot] != NONE) && (_keys[_table[mySlot]] != aKey))
+            mySlot = (mySlot + 1) & _mask;
+
+        return mySlot;
+    }
+
+    private static int hash(int aKey) {
+        int myHash = aKey * 0x9E3779B9;
+
+        return myHash ^ (myHash >>> 16);
+    }
+
+    /**
+     * Backward shift deletion, keeps probe sequences intact without tombstones
+     */
+    private void remove(int aSlot) {
+        int myGap = aSlot;
+        int mySlot = aSlot;
+
+        while (true) {
+            mySlot = (mySlot + 1) & _mask;
+
+            int myEntry = _table[mySlot];
+
+            if (myEntry == NONE)
+                break;
+
+            int myHome = hash(_keys[myEntry]) & _mask;
+
+            // Move the entry into the gap unless its home lies cyclically between the gap and where it sits
+            //
+            if (((mySlot - myHome) & _mask) >= ((mySlot - myGap) & _mask)) {
+                _table[myGap] = myEntry;
+                myGap = mySlot;
+            }
+        }
+
+        _table[myGap] = NONE;
+    }
+
+    private void unlink(int anEntry) {
+        int myPrev = _prev[anEntry];
+        int myNext = _next[anEntry];
+
+        if (myPrev == NONE)
+            _head = myNext;
+        else
+            _next[myPrev] = myNext;
+
+        if (myNext == NONE)
+            _tail = myPrev;
+        else
+            _prev[myNext] = myPrev;
+    }
+
+    private void pushFront(int anEntry) {
+        _prev[anEntry] = NONE;
+        _next[anEntry] = _head;
+
+        if (_head != NONE)
+            _prev[_head] = anEntry;
+
+        _head = anEntry;
+
+        if (_tail == NONE)
+            _tail = anEntry;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * A bounded cache of integer keys as seen by a simulation. Implementations must be safe for concurrent use.
+ */
+interface KeyCache {
+    /**
+     * Request a key, caching it if it's absent.
+     *
+     * @return <code>true</code> if the key was already cached
+     */
+    boolean access(int aKey);
+}
@@ -1,77 +1,197 @@
-import sample.BucketConsumer;
+import sample.IntBucketConsumer;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 class LB {
-    private final List<Node> _nodes = new ArrayList<>();
-    private final boolean _debug;
+    // Number of durations sampled at a time
+    //
+    static final int CHUNK_SIZE = 65536;
+
+    private final List<Node> _nodes;
+    private final NodeSelector _selector;
+    private final TraceSink _trace;
 
     LB(int aNumNodes, ThrottlePolicy aPolicy, boolean isDebug) {
+        this(aNumNodes, aPolicy, isDebug, SelectionStrategy.SCAN);
+    }
+
+    LB(int aNumNodes, ThrottlePolicy aPolicy, boolean isDebug, SelectionStrategy aStrategy) {
+        this(aNumNodes, aPolicy, isDebug, aStrategy, null);
+    }
+
+    /**
+     * @param isDebug whether nodes should keep the detail of each breach
+     * @param aTrace where to record every request allocated, or <code>null</code>
+     */
+    LB(int aNumNodes, ThrottlePolicy aPolicy, boolean isDebug, SelectionStrategy aStrategy, TraceSink aTrace) {
+        this(aNumNodes, aPolicy, null, isDebug, new Selection(aStrategy), aTrace);
+    }
+
+    /**
+     * @param aTenantPolicy the limit each node holds each tenant to, or <code>null</code> for none
+     */
+    LB(int aNumNodes, ThrottlePolicy aPolicy, ThrottlePolicy aTenantPolicy, boolean isDebug, Selection aSelection,
+       TraceSink aTrace) {
+        this(newNodes(aNumNodes, aPolicy, aTenantPolicy, isDebug), aSelection, aTrace);
+    }
+
+    /**
+     * @param aSelection how to choose between <code>aNodes</code>, or <code>null</code> if {@link #routeAll} is
+     *                   overridden to route some other way
+     */
+    LB(List<Node> aNodes, Selection aSelection, TraceSink aTrace) {
+        _nodes = aNodes;
+        _selector = (aSelection == null) ? null : aSelection.create(aNodes);
+        _trace = aTrace;
+    }
+
+    static List<Node> newNodes(int aNumNodes, ThrottlePolicy aPolicy, ThrottlePolicy aTenantPolicy,
+                               boolean isDebug) {
+        List<Node> myNodes = new ArrayList<>();
+
         for (int i = 0; i < aNumNodes; i++)
-            _nodes.add(new Node(i, aPolicy, isDebug));
+            myNodes.add(new Node(i, aPolicy, aTenantPolicy, isDebug));
 
-        _debug = isDebug;
+        return myNodes;
     }
 
     /**
      * @param aReqsPerSec must be > 0
      */
-    void allocate(BucketConsumer<Integer> aConsumer, int aReqsPerSec) {
-        if (aReqsPerSec <= 0)
-            throw new IllegalArgumentException("Requests per Second must be > 0");
-        
-        double myMillisPerReq = 1000.0 / aReqsPerSec;
-        long myCurrentTick = 0; // In seconds
-        int myReqCount = 0;
-
-        // Scatter the requests evenly across the seconds of runtime millisecond by millisecond
-        //
-        while (aConsumer.claim()) {
-            Integer myDuration = aConsumer.nextSample();
-
-            // Current time is a second + the request index for that second / the reqs per milli -
-            // allocate a request down to milliseconds
-            //
-            // long myCurrentTime = (long) Math.floor((myCurrentTick * 1000) + (myReqCount * myMillisPerReq));
-            long myCurrentTime = Math.round((myCurrentTick * 1000) + (myReqCount * myMillisPerReq));
-            boolean myOutcome = findTargetNode(myCurrentTime).incomingRequest(myDuration, myCurrentTime);
-
-            if (_debug)
-                if (myOutcome)
-                    System.out.print("B");
-                else
-                    System.out.print(".");
-
-            ++myReqCount;
-
-            // If we're done with requests for this second, start on the next
-            //
-            if (myReqCount == aReqsPerSec) {
-                ++myCurrentTick;
-                myReqCount = 0;
-            }
+    void allocate(IntBucketConsumer aConsumer, int aReqsPerSec) {
+        allocate(aConsumer, aReqsPerSec, false);
+    }
+
+    /**
+     * @param aReqsPerSec must be > 0
+     * @param shouldStopOnBreach return as soon as any node breaches, leaving the rest of the requests unallocated
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    void allocate(IntBucketConsumer aConsumer, int aReqsPerSec, boolean shouldStopOnBreach) {
+        allocate(aConsumer, new EvenArrivals(aReqsPerSec), shouldStopOnBreach);
+    }
+
+    /**
+     * Allocate requests at the times an arrival process generates. Durations are scaled to the process's ticks,
+     * the nodes' throttle scope must already be.
+     *
+     * @param shouldStopOnBreach return as soon as any node breaches, leaving the rest of the requests unallocated
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    void allocate(IntBucketConsumer aConsumer, ArrivalProcess anArrivals, boolean shouldStopOnBreach) {
+        allocate(aConsumer, anArrivals, null, shouldStopOnBreach);
+    }
+
+    /**
+     * @param aTenants labels requests with their tenant, or <code>null</code> if there are no tenants
+     * @param shouldStopOnBreach return as soon as any node breaches, leaving the rest of the requests unallocated
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    void allocate(IntBucketConsumer aConsumer, ArrivalProcess anArrivals, TenantMix aTenants,
+                  boolean shouldStopOnBreach) {
+        long[] myTimes = new long[CHUNK_SIZE];
+        int[] myDurations = new int[CHUNK_SIZE];
+        int[] myTenants = (aTenants == null) ? null : new int[CHUNK_SIZE];
+        int myChunkSize;
+
+        while ((myChunkSize = aConsumer.fill(myDurations)) != 0) {
+            if (Thread.currentThread().isInterrupted())
+                throw new CancellationException("Allocation interrupted");
+
+            anArrivals.fill(myTimes, myChunkSize);
+
+            if (aTenants != null)
+                aTenants.fill(myTenants, myChunkSize);
+
+            if (routeAll(myTimes, myDurations, myTenants, myChunkSize, anArrivals.ticksPerMilli(),
+                    shouldStopOnBreach))
+                return;
         }
     }
 
-    List<Node> getNodes() {
-        return _nodes;
+    /**
+     * Allocate recorded requests at their real arrival times rather than spacing them evenly
+     *
+     * @param shouldStopOnBreach return as soon as any node breaches, leaving the rest of the requests unallocated
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    void replay(RequestLog aLog, boolean shouldStopOnBreach) {
+        long[] myTimes = new long[CHUNK_SIZE];
+        int[] myDurations = new int[CHUNK_SIZE];
+        int myChunkSize;
+
+        while ((myChunkSize = aLog.fill(myTimes, myDurations)) != 0) {
+            if (Thread.currentThread().isInterrupted())
+                throw new CancellationException("Replay interrupted");
+
+            if (routeAll(myTimes, myDurations, null, myChunkSize, 1, shouldStopOnBreach))
+                return;
+        }
     }
 
-    private Node findTargetNode(long aCurrentTime) {
-        int myFavouriteConnectionCount = Integer.MAX_VALUE;
-        Node myFavouriteNode = null;
+    /**
+     * Route a chunk of requests in time order
+     *
+     * @param aTenants each request's tenant, or <code>null</code> if there are no tenants
+     * @return <code>true</code> if stopped on a breach
+     */
+    boolean routeAll(long[] aTimes, int[] aDurations, int[] aTenants, int aCount, int aTicksPerMilli,
+                             boolean shouldStopOnBreach) {
+        int myBreaches = 0;
+
+        for (int i = 0; i < aCount; i++) {
+            int myTenant = (aTenants == null) ? TenantMix.NO_TENANT : aTenants[i];
 
-        for (Node myNode: _nodes) {
-            int myConnectionCount = myNode.currentConnections(aCurrentTime);
+            if (route(aTimes[i], aDurations[i] * aTicksPerMilli, myTenant)) {
+                ++myBreaches;
 
-            if (myConnectionCount < myFavouriteConnectionCount) {
-                myFavouriteConnectionCount = myConnectionCount;
-                myFavouriteNode = myNode;
+                if (shouldStopOnBreach) {
+                    SimMetrics.INSTANCE.requests(i + 1, myBreaches);
+                    return true;
+                }
             }
         }
 
-        return myFavouriteNode;
+        SimMetrics.INSTANCE.requests(aCount, myBreaches);
+        return false;
     }
-}
 
+    /**
+     * @return <code>true</code> if the request breached the throttle of the node it was sent to
+     */
+    private boolean route(long aCurrentTime, int aDuration, int aTenant) {
+        int myTarget = _selector.select(aCurrentTime, aTenant);
+        Node myNode = _nodes.get(myTarget);
+        boolean myOutcome = myNode.incomingRequest(aDuration, aCurrentTime, aTenant);
+        boolean isRejected = myNode.wasTenantRejected();
+
+        // A request rejected for its tenant took no connection, selectors counting their own would be misled
+        //
+        if (!isRejected)
+            _selector.admitted(myTarget, aDuration, aCurrentTime);
+
+        if (_trace != null) {
+            byte myTraced = isRejected ? TraceSink.TENANT_REJECTED :
+                    (myOutcome ? TraceSink.BREACHED : TraceSink.ADMITTED);
+
+            _trace.record(aCurrentTime, myTarget, myNode.activeConnections(), myNode.inScopeCount(), myTraced);
+        }
+
+        return myOutcome;
+    }
+
+    /**
+     * Flush and close the trace, if there is one
+     */
+    void closeTrace() throws IOException {
+        if (_trace != null)
+            _trace.close();
+    }
+
+    List<Node> getNodes() {
+        return _nodes;
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.List;
+
+/**
+ * Least connections driven by a single, global {@link ExpiryWheel}. Connection counts are maintained here,
+ * incremented on admission and decremented by the wheel at the moment each request finishes, so no node is polled
+ * to discover its load. Work is proportional to admissions plus expiries and choices are identical to
+ * {@link LeastConnectionsScan}.
+ */
+class LeastConnectionsEvents implements NodeSelector, ExpiryWheel.Listener {
+    // One per millisecond, comfortably more than the longest request in the standard distribution
+    //
+    private static final int WHEEL_SLOTS = 8192;
+
+    private final List<? extends Connections> _nodes;
+    private final int[] _connections;
+    private final IndexedMinHeap _byLoad;
+    private final ExpiryWheel _wheel;
+
+    /**
+     * @param aTicksPerMilli the resolution of request times, so that the wheel's slots stay a millisecond wide
+     */
+    LeastConnectionsEvents(List<? extends Connections> aNodes, int aTicksPerMilli) {
+        _nodes = aNodes;
+        _connections = new int[aNodes.size()];
+        _byLoad = new IndexedMinHeap(aNodes.size());
+        _wheel = new ExpiryWheel(WHEEL_SLOTS, aTicksPerMilli, this);
+
+        for (int i = 0; i < aNodes.size(); i++)
+            _byLoad.set(i, loadKey(0, i));
+    }
+
+    private static long loadKey(int aConnections, int anIndex) {
+        return ((long) aConnections << 32) | anIndex;
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        _wheel.advance(aCurrentTime);
+
+        int myChoice = _byLoad.peek();
+
+        // Keep the node's own view of its requests and throttle scope in step with ours
+        //
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+        _byLoad.set(anIndex, loadKey(++_connections[anIndex], anIndex));
+        _wheel.schedule(aCurrentTime + aDuration, anIndex);
+    }
+
+    @Override
+    public void withdrawn(int anIndex, int aDuration, long aRequestTime) {
+        // If it has already expired it's been counted out
+        //
+        if (_wheel.cancel(aRequestTime + aDuration, anIndex))
+            expired(anIndex);
+    }
+
+    @Override
+    public void expired(int aNode) {
+        _byLoad.set(aNode, loadKey(--_connections[aNode], aNode));
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.List;
+
+/**
+ * Makes the same choice as {@link LeastConnectionsScan} but only visits nodes when something about them has
+ * changed. Nodes are held in one heap ordered by connection count (then index, to match the scan's tie-break)
+ * and another ordered by when their next request expires. Before choosing, any node whose next expiry has passed
+ * is culled and re-keyed. Selection is thus O(log N) per admission or expiry rather than O(N) per request.
+ *
+ * Throttle scope is culled lazily on the chosen node only, that's sufficient as a cull at a given time has the
+ * same outcome regardless of how many earlier culls were skipped.
+ */
+class LeastConnectionsHeap implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+    private final IndexedMinHeap _byLoad;
+    private final IndexedMinHeap _byExpiry;
+
+    LeastConnectionsHeap(List<? extends Connections> aNodes) {
+        _nodes = aNodes;
+        _byLoad = new IndexedMinHeap(aNodes.size());
+        _byExpiry = new IndexedMinHeap(aNodes.size());
+
+        for (int i = 0; i < aNodes.size(); i++) {
+            Connections myNode = aNodes.get(i);
+
+            _byLoad.set(i, loadKey(myNode.activeConnections(), i));
+            _byExpiry.set(i, myNode.nextExpiry());
+        }
+    }
+
+    private static long loadKey(int aConnections, int anIndex) {
+        return ((long) aConnections << 32) | anIndex;
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        while (_byExpiry.peekKey() <= aCurrentTime)
+            refresh(_byExpiry.peek(), aCurrentTime);
+
+        int myChoice = _byLoad.peek();
+
+        // Nothing has expired on this node, but its throttle scope may have moved on
+        //
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+        refresh(anIndex, aCurrentTime);
+    }
+
+    @Override
+    public void withdrawn(int anIndex, int aDuration, long aRequestTime) {
+        Connections myNode = _nodes.get(anIndex);
+
+        // Anything expired on this node was culled when it came due, so its count is still current
+        //
+        _byLoad.set(anIndex, loadKey(myNode.activeConnections(), anIndex));
+        _byExpiry.set(anIndex, myNode.nextExpiry());
+    }
+
+    private void refresh(int anIndex, long aCurrentTime) {
+        Connections myNode = _nodes.get(anIndex);
+
+        _byLoad.set(anIndex, loadKey(myNode.currentConnections(aCurrentTime), anIndex));
+        _byExpiry.set(anIndex, myNode.nextExpiry());
+    }
+}
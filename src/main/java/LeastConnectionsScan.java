@@ -0,0 +1,33 @@
+import java.util.List;
+
+/**
+ * Visits every node for each request, picking the one with the least connections (lowest index on a tie).
+ */
+class LeastConnectionsScan implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+
+    LeastConnectionsScan(List<? extends Connections> aNodes) {
+        _nodes = aNodes;
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        int myFavouriteConnectionCount = Integer.MAX_VALUE;
+        int myFavouriteNode = -1;
+
+        for (int i = 0; i < _nodes.size(); i++) {
+            int myConnectionCount = _nodes.get(i).currentConnections(aCurrentTime);
+
+            if (myConnectionCount < myFavouriteConnectionCount) {
+                myFavouriteConnectionCount = myConnectionCount;
+                myFavouriteNode = i;
+            }
+        }
+
+        return myFavouriteNode;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+    }
+}
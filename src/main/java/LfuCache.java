@@ -0,0 +1,59 @@
+/**
+ * Least frequently used, ties broken by least recently used. Entries are ordered in an {@link IndexedMinHeap} by
+ * access count then last access so hits and evictions are O(log n). Counts never decay so, by design, keys that
+ * were once popular hang on.
+ */
+class LfuCache implements KeyCache {
+    // Low bits of the heap key hold the access tick, high bits the access count
+    //
+    private static final int TICK_BITS = 40;
+    private static final long TICK_MASK = (1L << TICK_BITS) - 1;
+    private static final int MAX_COUNT = (1 << (63 - TICK_BITS)) - 1;
+
+    private final int _capacity;
+    private final IntEntries _entries;
+    private final int[] _counts;
+    private final IndexedMinHeap _byUse;
+    private long _tick = 0;
+
+    LfuCache(int aCapacity) {
+        _capacity = aCapacity;
+        _entries = new IntEntries(aCapacity);
+        _counts = new int[aCapacity];
+        _byUse = new IndexedMinHeap(aCapacity);
+    }
+
+    static double bytesPerEntry(int aCapacity) {
+        // Count plus the heap's position, slot and key
+        //
+        return IntEntries.bytesPerEntry(aCapacity) + (3 * Integer.BYTES) + Long.BYTES;
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int myEntry = _entries.find(aKey);
+
+        ++_tick;
+
+        if (myEntry != IntEntries.NONE) {
+            _counts[myEntry] = Math.min(_counts[myEntry] + 1, MAX_COUNT);
+            _byUse.set(myEntry, useKey(myEntry));
+            return true;
+        }
+
+        // The freed entry is the one reused below, so setting its heap key re-positions it
+        //
+        if (_entries.size() == _capacity)
+            _entries.remove(_byUse.peek());
+
+        myEntry = _entries.add(aKey);
+        _counts[myEntry] = 1;
+        _byUse.set(myEntry, useKey(myEntry));
+
+        return false;
+    }
+
+    private long useKey(int anEntry) {
+        return ((long) _counts[anEntry] << TICK_BITS) | (_tick & TICK_MASK);
+    }
+}
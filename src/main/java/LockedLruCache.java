@@ -0,0 +1,15 @@
+/**
+ * Exact LRU, a single {@link LruCache} guarded by one lock.
+ */
+class LockedLruCache implements KeyCache {
+    private final LruCache<Integer, Integer> _cache;
+
+    LockedLruCache(int aSize) {
+        _cache = new LruCache<>(aSize);
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        return _cache.putIfAbsent(aKey, aKey) != null;
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.Arrays;
+
+/**
+ * Growable binary min-heap of primitive longs, avoids boxing and per-entry allocation.
+ */
+class LongMinHeap {
+    private long[] _heap;
+    private int _size = 0;
+
+    LongMinHeap() {
+        this(16);
+    }
+
+    LongMinHeap(int anInitialCapacity) {
+        _heap = new long[Math.max(anInitialCapacity, 1)];
+    }
+
+    int size() {
+        return _size;
+    }
+
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    long peek() {
+        if (_size == 0)
+            throw new IllegalStateException("Heap is empty");
+
+        return _heap[0];
+    }
+
+    void add(long aValue) {
+        if (_size == _heap.length)
+            _heap = Arrays.copyOf(_heap, _size * 2);
+
+        int myPos = _size++;
+
+        while (myPos > 0) {
+            int myParent = (myPos - 1) >>> 1;
+
+            if (_heap[myParent] <= aValue)
+                break;
+
+            _heap[myPos] = _heap[myParent];
+            myPos = myParent;
+        }
+
+        _heap[myPos] = aValue;
+    }
+
+    long poll() {
+        long myTop = peek();
+        long myLast = _heap[--_size];
+        int myPos = 0;
+        int myHalf = _size >>> 1;
+
+        while (myPos < myHalf) {
+            int myChild = (myPos << 1) + 1;
+            int myRight = myChild + 1;
+
+            if ((myRight < _size) && (_heap[myRight] < _heap[myChild]))
+                myChild = myRight;
+
+            if (myLast <= _heap[myChild])
+                break;
+
+            _heap[myPos] = _heap[myChild];
+            myPos = myChild;
+        }
+
+        _heap[myPos] = myLast;
+
+        return myTop;
+    }
+}
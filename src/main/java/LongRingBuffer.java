@@ -0,0 +1,59 @@
+/**
+ * Growable FIFO queue of primitive longs backed by a power of two sized array.
+ */
+class LongRingBuffer {
+    private long[] _buffer;
+    private int _head = 0;
+    private int _size = 0;
+
+    LongRingBuffer() {
+        this(16);
+    }
+
+    LongRingBuffer(int anInitialCapacity) {
+        _buffer = new long[Integer.highestOneBit(Math.max(anInitialCapacity - 1, 1)) << 1];
+    }
+
+    int size() {
+        return _size;
+    }
+
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    long peek() {
+        if (_size == 0)
+            throw new IllegalStateException("Buffer is empty");
+
+        return _buffer[_head];
+    }
+
+    void add(long aValue) {
+        if (_size == _buffer.length)
+            grow();
+
+        _buffer[(_head + _size) & (_buffer.length - 1)] = aValue;
+        ++_size;
+    }
+
+    long poll() {
+        long myValue = peek();
+
+        _head = (_head + 1) & (_buffer.length - 1);
+        --_size;
+
+        return myValue;
+    }
+
+    private void grow() {
+        long[] myBuffer = new long[_buffer.length * 2];
+        int myTail = _buffer.length - _head;
+
+        System.arraycopy(_buffer, _head, myBuffer, 0, myTail);
+        System.arraycopy(_buffer, 0, myBuffer, myTail, _head);
+
+        _buffer = myBuffer;
+        _head = 0;
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples {@link SimMetrics} periodically, printing a one line summary of rates over the last period and optionally
+ * writing the same as JSON to a file (replaced atomically so readers never see it half written).
+ */
+class MetricsReporter implements Runnable {
+    private final SimMetrics _metrics;
+    private final PrintStream _out;
+    private final Path _json;
+
+    // Rates are over the period since the last report, the first covering the whole run so far
+    //
+    private long _lastNanos = 0;
+    private long _lastRequests = 0;
+    private long _lastEvents = 0;
+    private final Map<Thread, Long> _lastCpu = new HashMap<>();
+
+    /**
+     * @param aJson file to write JSON to, or <code>null</code>
+     */
+    MetricsReporter(SimMetrics aMetrics, PrintStream anOut, Path aJson) {
+        _metrics = aMetrics;
+        _out = anOut;
+        _json = aJson;
+    }
+
+    /**
+     * @return the scheduler running the reporter, shut it down to stop reporting
+     */
+    static ScheduledExecutorService start(SimMetrics aMetrics, int aPeriodSeconds, Path aJson) {
+        ScheduledExecutorService myScheduler = Executors.newSingleThreadScheduledExecutor(aRunnable -> {
+            Thread myThread = new Thread(aRunnable, "metrics-reporter");
+
+            myThread.setDaemon(true);
+            return myThread;
+        });
+
+        myScheduler.scheduleAtFixedRate(new MetricsReporter(aMetrics, System.out, aJson), aPeriodSeconds,
+                aPeriodSeconds, TimeUnit.SECONDS);
+
+        return myScheduler;
+    }
+
+    @Override
+    public void run() {
+        long myNanos = _metrics.elapsedNanos();
+        long myRequests = _metrics.getRequests();
+        long myEvents = _metrics.getEvents();
+        double mySeconds = (myNanos - _lastNanos) / 1e9;
+
+        double myRequestRate = (myRequests - _lastRequests) / mySeconds;
+        double myEventRate = (myEvents - _lastEvents) / mySeconds;
+
+        StringBuilder myLine = new StringBuilder(String.format(
+                "Metrics @ %d s: %d requests (%.0f/s) %d events (%.0f/s) sims %d/%d (%d cancelled) mean %.0f ms " +
+                        "max %.0f ms",
+                TimeUnit.NANOSECONDS.toSeconds(myNanos), myRequests, myRequestRate, myEvents, myEventRate,
+                _metrics.getSimulationsCompleted(), _metrics.getSimulationsStarted(),
+                _metrics.getSimulationsCancelled(), _metrics.getMeanSimulationMillis(),
+                _metrics.getMaxSimulationMillis()));
+
+        StringBuilder myJson = new StringBuilder(String.format(Locale.ROOT,
+                "{\"elapsedSeconds\":%.3f,\"requests\":%d,\"requestsPerSecond\":%.1f,\"events\":%d," +
+                        "\"eventsPerSecond\":%.1f,\"simulationsStarted\":%d,\"simulationsCompleted\":%d," +
+                        "\"simulationsCancelled\":%d,\"meanSimulationMillis\":%.3f,\"maxSimulationMillis\":%.3f," +
+                        "\"executors\":[",
+                myNanos / 1e9, myRequests, myRequestRate, myEvents, myEventRate,
+                _metrics.getSimulationsStarted(), _metrics.getSimulationsCompleted(),
+                _metrics.getSimulationsCancelled(), _metrics.getMeanSimulationMillis(),
+                _metrics.getMaxSimulationMillis()));
+
+        List<SimMetrics.Backlog> myBacklogs = _metrics.backlogs();
+
+        for (int i = 0; i < myBacklogs.size(); i++) {
+            SimMetrics.Backlog myBacklog = myBacklogs.get(i);
+            int myQueued = myBacklog.queued();
+            int myActive = myBacklog.active();
+            int myWorkers = myBacklog.workers();
+
+            myLine.append(String.format(" | %s queued %d active %d/%d", myBacklog.getName(), myQueued, myActive,
+                    myWorkers));
+            myJson.append(String.format(Locale.ROOT,
+                    "%s{\"name\":\"%s\",\"queued\":%d,\"active\":%d,\"workers\":%d}", (i == 0) ? "" : ",",
+                    myBacklog.getName(), myQueued, myActive, myWorkers));
+        }
+
+        myLine.append(" | cpu %");
+        myJson.append("],\"workerCpu\":{");
+
+        // CPU used over the period as a percentage of the period, per worker
+        //
+        boolean isFirst = true;
+
+        for (Thread myWorker : _metrics.workers()) {
+            long myCpu = _metrics.cpuNanos(myWorker);
+
+            if (myCpu < 0)
+                continue;
+
+            Long myLast = _lastCpu.put(myWorker, myCpu);
+            double myUtilisation = (myCpu - ((myLast == null) ? 0 : myLast)) / 1e7 / mySeconds;
+
+            myLine.append(String.format(" %s %.0f", myWorker.getName(), myUtilisation));
+            myJson.append(String.format(Locale.ROOT, "%s\"%s\":%.1f", isFirst ? "" : ",", myWorker.getName(),
+                    myUtilisation));
+            isFirst = false;
+        }
+
+        _lastCpu.keySet().removeIf(aThread -> aThread.getState() == Thread.State.TERMINATED);
+
+        myJson.append("}}");
+
+        _out.println(myLine);
+
+        if (_json != null)
+            write(myJson.toString());
+
+        _lastNanos = myNanos;
+        _lastRequests = myRequests;
+        _lastEvents = myEvents;
+    }
+
+    private void write(String aJson) {
+        try {
+            Path myTemp = _json.resolveSibling(_json.getFileName() + ".tmp");
+
+            Files.write(myTemp, aJson.getBytes(StandardCharsets.UTF_8));
+            Files.move(myTemp, _json, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException anE) {
+            _out.println("Metrics couldn't be written to " + _json + ": " + anE);
+        }
+    }
+}
@@ -1,19 +1,25 @@
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
+import org.apache.commons.math3.distribution.TDistribution;
 import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.SynchronizedRandomGenerator;
 import org.apache.commons.math3.random.Well44497b;
-import sample.Bucket;
-import sample.BucketConsumer;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+import sample.Sampling;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.concurrent.*;
 
 public class MonteCarloCache {
-    private final RandomGenerator _seeder = new Well44497b();
+    private final RandomGenerator _seeder;
 
     private final int NUM_CORES;
     private final int NUM_SIMS;
@@ -21,8 +27,14 @@ public class MonteCarloCache {
     private final int NUM_CACHES;
     private final int CACHE_SIZE;
     private final int SCALE;
+    private final Sampling SAMPLING;
+    private final List<CachePolicy> POLICIES;
+    private final boolean FORK_JOIN;
+    private final int CONCURRENT_SIMS;
+    private final int REPORT_SECONDS;
+    private final Path METRICS_JSON;
 
-    private final Bucket<Integer>[] PROTOTYPE_BUCKETS;
+    private final IntBucket[] PROTOTYPE_BUCKETS;
 
     private static class Configuration {
         private final OptionParser myOp = new OptionParser();
@@ -33,6 +45,13 @@ public class MonteCarloCache {
         final OptionSpec<Integer> _numCaches = myOp.accepts("h").withOptionalArg().ofType(Integer.class).defaultsTo(12);
         final OptionSpec<Integer> _cacheSize = myOp.accepts("z").withOptionalArg().ofType(Integer.class).defaultsTo(67000);
         final OptionSpec<Integer> _cycles = myOp.accepts("n").withOptionalArg().ofType((Integer.class)).defaultsTo(1);
+        final OptionSpec<Sampling> _sampling = myOp.accepts("m").withOptionalArg().ofType(Sampling.class).defaultsTo(Sampling.UNIFORM);
+        final OptionSpec<CachePolicy> _policy = myOp.accepts("p").withOptionalArg().ofType(CachePolicy.class).withValuesSeparatedBy(',').defaultsTo(CachePolicy.INT_LRU);
+        final OptionSpec<Boolean> _forkJoin = myOp.accepts("j").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+        final OptionSpec<Integer> _concurrentSims = myOp.accepts("x").withRequiredArg().ofType(Integer.class);
+        final OptionSpec<Integer> _reportParam = myOp.accepts("report").withOptionalArg().ofType(Integer.class).defaultsTo(0);
+        final OptionSpec<String> _metricsJsonParam = myOp.accepts("metrics-json").withRequiredArg().ofType(String.class);
+        final OptionSpec<Long> _seedParam = myOp.accepts("seed").withRequiredArg().ofType(Long.class);
 
         OptionSet produce(String[] anArgs) {
             return myOp.parse(anArgs);
@@ -49,19 +68,34 @@ public class MonteCarloCache {
         NUM_CACHES = myConfig._numCaches.value(myOptions);
         CACHE_SIZE = myConfig._cacheSize.value(myOptions);
         SCALE = myConfig._cycles.value(myOptions);
+        SAMPLING = myConfig._sampling.value(myOptions);
+        POLICIES = myConfig._policy.values(myOptions);
+        FORK_JOIN = myConfig._forkJoin.value(myOptions);
+
+        // By default run as many sims at once as we have cores
+        //
+        CONCURRENT_SIMS = myOptions.has(myConfig._concurrentSims) ?
+                myConfig._concurrentSims.value(myOptions) : NUM_CORES;
+
+        REPORT_SECONDS = myConfig._reportParam.value(myOptions);
+        METRICS_JSON = myOptions.has(myConfig._metricsJsonParam) ?
+                Paths.get(myConfig._metricsJsonParam.value(myOptions)) : null;
+
+        _seeder = new SynchronizedRandomGenerator(myOptions.has(myConfig._seedParam) ?
+                new Well44497b(myConfig._seedParam.value(myOptions)) : new Well44497b());
 
         PROTOTYPE_BUCKETS = new CacheKeyBucket[NUM_KEYS];
 
         for (int i = 0; i < NUM_KEYS; i++) {
-            PROTOTYPE_BUCKETS[i] = new CacheKeyBucket(i + 1, getContribution(i + 1));
+            PROTOTYPE_BUCKETS[i] = new CacheKeyBucket(i + 1, contribution(i + 1, SCALE));
         }
     }
 
-    private int getContribution(int aRank) {
+    static int contribution(int aRank, int aScale) {
         double a = 2.107e+04;
         double b = -0.77;
 
-        return Math.max(Double.valueOf(a * Math.pow(aRank, b)).intValue() * SCALE, 1);
+        return Math.max(Double.valueOf(a * Math.pow(aRank, b)).intValue() * aScale, 1);
     }
 
     private void simulate() throws Exception {
@@ -69,30 +103,168 @@ public class MonteCarloCache {
                 CACHE_SIZE + " w/ " + NUM_CACHES + " caches at scale: " + SCALE);
 
         System.out.println("Cores: " + NUM_CORES);
+        System.out.println("Sampling: " + SAMPLING);
+        System.out.println("Fork join: " + FORK_JOIN);
+
+        for (CachePolicy myPolicy : POLICIES) {
+            double myBytesPerEntry = myPolicy.bytesPerEntry(CACHE_SIZE);
+
+            System.out.format("Cache policy: %s ~%.1f bytes per entry, ~%.1f MB for %d caches\n", myPolicy,
+                    myBytesPerEntry, myBytesPerEntry * CACHE_SIZE * NUM_CACHES / (1024 * 1024), NUM_CACHES);
+        }
+
+        System.out.println("Concurrent sims: " + CONCURRENT_SIMS);
 
+        SimMetrics myMetrics = SimMetrics.INSTANCE;
         ThreadPoolExecutor myExecutor = new ThreadPoolExecutor(NUM_CORES, NUM_CORES, 30,
-                TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), myMetrics.threadFactory("requester"));
+        ForkJoinPool myPool = new ForkJoinPool(NUM_CORES, myMetrics.forkJoinThreadFactory(), null, false);
+
+        // Sims block on the pools above so must be driven from their own threads
+        //
+        ThreadPoolExecutor myRunner = new ThreadPoolExecutor(CONCURRENT_SIMS, CONCURRENT_SIMS, 30,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), myMetrics.threadFactory("sim"));
+
+        myMetrics.monitor("sims", myRunner);
+
+        if (FORK_JOIN)
+            myMetrics.monitor("fork-join", myPool);
+        else
+            myMetrics.monitor("requesters", myExecutor);
+
+        myMetrics.registerMBean();
+
+        ScheduledExecutorService myReporter = (REPORT_SECONDS > 0) ?
+                MetricsReporter.start(myMetrics, REPORT_SECONDS, METRICS_JSON) : null;
+        CompletionService<Outcome> myOutcomes = new ExecutorCompletionService<>(myRunner);
+
+        // Seeds are drawn up front so results don't depend on the order sims complete in. Each policy sees the
+        // same request streams.
+        //
+        long myStart = System.nanoTime();
 
         for (int i = 0; i < NUM_SIMS; i++) {
-            Sim myTask = new Sim(myExecutor, NUM_CACHES, CACHE_SIZE, PROTOTYPE_BUCKETS, _seeder.nextLong());
+            long mySeed = _seeder.nextLong();
+
+            for (int j = 0; j < POLICIES.size(); j++) {
+                CachePolicy myPolicy = POLICIES.get(j);
+                int mySimNum = i;
+                int myPolicyNum = j;
+
+                myOutcomes.submit(() -> {
+                    myMetrics.simStarted();
+
+                    CacheSim myTask = FORK_JOIN ?
+                            new ForkJoinSim(myPool, NUM_CACHES, myPolicy, CACHE_SIZE, PROTOTYPE_BUCKETS,
+                                    SAMPLING, mySeed) :
+                            new Sim(myExecutor, NUM_CACHES, myPolicy, CACHE_SIZE, NUM_CORES,
+                                    PROTOTYPE_BUCKETS, SAMPLING, mySeed);
+
+                    long mySimStart = System.nanoTime();
+                    myTask.invoke();
+                    long mySimNanos = System.nanoTime() - mySimStart;
+
+                    myMetrics.simCompleted(mySimNanos);
+
+                    return new Outcome(mySimNum, myPolicyNum, myTask.getHits(), myTask.getMisses(), mySimNanos);
+                });
+            }
+        }
+
+        SummaryStatistics[] myRatios = new SummaryStatistics[POLICIES.size()];
+        long[] myRequests = new long[POLICIES.size()];
+        long myTotalRequests = 0;
+
+        for (int j = 0; j < POLICIES.size(); j++)
+            myRatios[j] = new SummaryStatistics();
+
+        try {
+            for (int i = 0; i < NUM_SIMS * POLICIES.size(); i++) {
+                Outcome myOutcome = myOutcomes.take().get();
+                long mySimRequests = myOutcome._hits + myOutcome._misses;
+
+                myRatios[myOutcome._policy].addValue((double) myOutcome._hits / mySimRequests * 100);
+                myRequests[myOutcome._policy] += mySimRequests;
+                myTotalRequests += mySimRequests;
 
-            myTask.invoke();
-            System.out.println("Hits: " + myTask.getHits() + " Misses: " + myTask.getMisses());
+                System.out.println("Sim " + myOutcome._sim + " " + POLICIES.get(myOutcome._policy) + " Hits: " +
+                        myOutcome._hits + " Misses: " + myOutcome._misses);
+                System.out.format("Throughput: %.0f requests/s on %d cores (%d ms)\n",
+                        mySimRequests / (myOutcome._nanos / 1e9), NUM_CORES,
+                        TimeUnit.NANOSECONDS.toMillis(myOutcome._nanos));
+            }
+        } finally {
+            // A last report covering the whole run
+            //
+            if (myReporter != null) {
+                myReporter.shutdownNow();
+                new MetricsReporter(myMetrics, System.out, METRICS_JSON).run();
+            }
+
+            myRunner.shutdownNow();
+            myExecutor.shutdownNow();
+            myPool.shutdownNow();
         }
 
-        myExecutor.shutdownNow();
+        long myElapsed = System.nanoTime() - myStart;
+
+        System.out.println();
+
+        for (int j = 0; j < POLICIES.size(); j++) {
+            SummaryStatistics myStats = myRatios[j];
+
+            System.out.format("%-12s hit ratio: %% %.4f sd %.4f 95%% CI %.4f - %.4f over %d sims, %d requests\n",
+                    POLICIES.get(j), myStats.getMean(), myStats.getStandardDeviation(),
+                    myStats.getMean() - halfWidth(myStats), myStats.getMean() + halfWidth(myStats),
+                    myStats.getN(), myRequests[j]);
+        }
+
+        System.out.format("Total: %d requests in %d ms, %.0f requests/s\n", myTotalRequests,
+                TimeUnit.NANOSECONDS.toMillis(myElapsed), myTotalRequests / (myElapsed / 1e9));
+    }
+
+    /**
+     * @return half the width of the 95% confidence interval for the mean, zero if there are too few samples
+     */
+    private static double halfWidth(SummaryStatistics aStats) {
+        if (aStats.getN() < 2)
+            return 0;
+
+        return new TDistribution(aStats.getN() - 1).inverseCumulativeProbability(0.975) *
+                aStats.getStandardDeviation() / Math.sqrt(aStats.getN());
     }
 
     public static void main(String[] anArgs) throws Exception {
         new MonteCarloCache(anArgs).simulate();
     }
 
-    private static class Sim {
+    private static class Outcome {
+        private final int _sim;
+        private final int _policy;
+        private final long _hits;
+        private final long _misses;
+        private final long _nanos;
+
+        Outcome(int aSim, int aPolicy, long aHits, long aMisses, long aNanos) {
+            _sim = aSim;
+            _policy = aPolicy;
+            _hits = aHits;
+            _misses = aMisses;
+            _nanos = aNanos;
+        }
+    }
+
+    interface CacheSim {
+        void invoke() throws Exception;
+        int getHits();
+        int getMisses();
+    }
+
+    private static class Sim implements CacheSim {
         private static final int BATCH_SIZE = 50;
 
-        private final BucketConsumer<Integer> _consumer;
-        private final List<Map<Integer, Integer>> _caches;
-        private final int _cacheSize;
+        private final IntBucketConsumer _consumer;
+        private final List<KeyCache> _caches;
         private final RandomGenerator _rng;
         private final CompletionService<Requester> _completions;
 
@@ -100,41 +272,40 @@ public class MonteCarloCache {
         private int _misses;
         private int _taskCount;
 
-        Sim(ThreadPoolExecutor anExec, int aNumCaches, int aCacheSize, Bucket<Integer>[] aBuckets, long aSeed) {
+        Sim(ThreadPoolExecutor anExec, int aNumCaches, CachePolicy aPolicy, int aCacheSize, int aConcurrency,
+            IntBucket[] aBuckets, Sampling aSampling, long aSeed) {
             _rng = new Well44497b(aSeed);
-            _consumer = new BucketConsumer<>(aBuckets, _rng);
-            _cacheSize = aCacheSize;
+            _consumer = new IntBucketConsumer(aBuckets, _rng, aSampling);
             _completions = new ExecutorCompletionService<>(anExec);
 
-            ArrayList<Map<Integer, Integer>> myCaches = new ArrayList<>();
+            ArrayList<KeyCache> myCaches = new ArrayList<>();
 
             for (int i = 0; i < aNumCaches; i++)
-                myCaches.add(new LruCache<>(_cacheSize));
+                myCaches.add(aPolicy.create(aCacheSize, aConcurrency));
 
             _caches = Collections.unmodifiableList(myCaches);
         }
 
-        void invoke() throws Exception {
-            List<Integer> mySamples = new ArrayList<>(BATCH_SIZE);
-
-            while (_consumer.claim()) {
-                mySamples.add(_consumer.nextSample());
+        public void invoke() throws Exception {
+            int[] mySamples = new int[BATCH_SIZE];
+            int myCount;
 
-                if (mySamples.size() == BATCH_SIZE) {
-                    dispatch(mySamples);
-                    mySamples = new ArrayList<>(BATCH_SIZE);
-                    consume();
-                }
+            // A short (possibly empty) batch means we're done
+            //
+            while ((myCount = _consumer.fill(mySamples)) == BATCH_SIZE) {
+                dispatch(mySamples, myCount);
+                mySamples = new int[BATCH_SIZE];
+                consume();
             }
 
-            dispatch(mySamples);
+            dispatch(mySamples, myCount);
             
             for (int i = 0; i < _taskCount; i++)
                 consume(_completions.take().get());
         }
 
-        private void dispatch(List<Integer> aSamples) {
-            _completions.submit(new Requester(aSamples, _rng.nextLong()));
+        private void dispatch(int[] aSamples, int aCount) {
+            _completions.submit(new Requester(aSamples, aCount, _rng.nextLong()));
             ++_taskCount;
         }
 
@@ -152,48 +323,45 @@ public class MonteCarloCache {
             _hits += aReq.getHit();
         }
 
-        int getHits() {
+        public int getHits() {
             return _hits;
         }
 
-        int getMisses() {
+        public int getMisses() {
             return _misses;
         }
 
         private class Requester implements Callable<Requester> {
-            private final List<Integer> _keys;
-            private RandomGenerator _randomizer;
+            private int[] _keys;
+            private final int _count;
+            private SplittableRandom _randomizer;
             private int _hit;
             private int _miss;
 
-            Requester(List<Integer> aKeys, long aSeed) {
+            Requester(int[] aKeys, int aCount, long aSeed) {
                 _keys = aKeys;
-                _randomizer = new Well44497b(aSeed);
+                _count = aCount;
+                _randomizer = new SplittableRandom(aSeed);
             }
 
             @Override
             public Requester call() {
-                _keys.forEach(k -> {
-                    Map<Integer, Integer> myChoice = _caches.get(_randomizer.nextInt(_caches.size()));
-
-                    boolean didMiss;
-
-                    synchronized (myChoice) {
-                        didMiss = (myChoice.putIfAbsent(k, k) == null);
-                    }
+                for (int i = 0; i < _count; i++) {
+                    KeyCache myChoice = _caches.get(_randomizer.nextInt(_caches.size()));
 
-                    if (didMiss)
-                        ++_miss;
-                    else
+                    if (myChoice.access(_keys[i]))
                         ++_hit;
-                });
+                    else
+                        ++_miss;
+                }
 
+                SimMetrics.INSTANCE.requests(_count, _hit);
                 tidyUp();
                 return this;
             }
 
             private void tidyUp() {
-                _keys.clear();
+                _keys = null;
                 _randomizer = null;
             }
 
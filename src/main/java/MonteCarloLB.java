@@ -1,16 +1,24 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.random.SynchronizedRandomGenerator;
 import org.apache.commons.math3.random.Well44497b;
-import sample.Bucket;
+import sample.IntBucket;
 
 class MonteCarloLB {
 	// Percentage of requests that fall in 100ms ranges starting at 0-100ms (long-tailed distribution so trimmed & not summing to 100%)
 	//
-	private static final double[] BUCKET_SIZE_PERCENTAGES = {12.62, 25.58, 9.53, 7.04, 6.15, 5.42, 4.58, 3.74,
+	static final double[] BUCKET_SIZE_PERCENTAGES = {12.62, 25.58, 9.53, 7.04, 6.15, 5.42, 4.58, 3.74,
 			3.01, 2.44, 2.01, 1.70, 1.45, 1.25, 1.09, 0.97, 0.86, 0.77, 0.70, 0.64, 0.59, 0.65, 0.56, 0.50, 0.46,
 			0.42, 0.38, 0.35, 0.32, 0.29, 0.26, 0.24, 0.22, 0.20, 0.19, 0.17, 0.16, 0.15, 0.13, 0.12, 0.11, 0.10,
 			0.10, 0.09, 0.08, 0.08, 0.07, 0.07, 0.06, 0.06, 0.05, 0.05, 0.05, 0.04, 0.04, 0.04, 0.03, 0.03, 0.03,
@@ -52,9 +60,79 @@ class MonteCarloLB {
 	//
 	private final Integer TOTAL_NODES;
 
-	private final Bucket<Integer>[] PROTOTYPE_BUCKETS;
+	// How the load balancer chooses a node
+	//
+	private final SelectionStrategy SELECTION;
+
+	// Nodes sampled per request by POWER_OF_D and relative node weights (repeated across the nodes) for the
+	// weighted strategies
+	//
+	private final Integer CHOICES;
+	private final double[] WEIGHTS;
+
+	// Milliseconds between snapshots of node load for STALE and STALE_SNAPSHOT
+	//
+	private final Integer REFRESH_MILLIS;
 
-	private final RandomGenerator _seeder = new SynchronizedRandomGenerator(new Well44497b());
+	// Load balancers sharing out the arrivals, each routing independently, and the pool they run on when there's
+	// more than one
+	//
+	private final Integer SHARDS;
+	private ForkJoinPool _shardPool;
+
+	// How each node enforces the throttle
+	//
+	private final ThrottleAlgorithm THROTTLE;
+
+	// Tenants labelling a share of the requests, if any, and the limit each node holds each of them to
+	//
+	private final TenantMix TENANTS;
+	private final Integer TENANT_LIMIT;
+
+	// When requests arrive and the resulting resolution of simulated time
+	//
+	private final ArrivalPattern ARRIVALS;
+	private final int TICKS_PER_MILLI;
+
+	// How to look for the lowest breach-free throttle
+	//
+	private final ThrottleSearch SEARCH;
+
+	// Whether to stop running a setting's simulations once the outcome is statistically clear and, if so, the
+	// confidence required and the largest tolerable chance of a simulation breaching at a "breach-free" setting
+	//
+	private final Boolean SEQUENTIAL_STOP;
+	private final Double CONFIDENCE;
+	private final Double TOLERANCE;
+
+	// Seconds between progress reports (0 for none) and where to write them as JSON
+	//
+	private final Integer REPORT_SECONDS;
+	private final Path METRICS_JSON;
+
+	// Directory to write a binary trace of each simulation to, if any
+	//
+	private final Path TRACE_DIR;
+	private final AtomicInteger _traceCount = new AtomicInteger();
+
+	// Recorded requests to replay in place of generated ones, if any
+	//
+	private final Path REQUEST_LOG;
+
+	private final IntBucket[] PROTOTYPE_BUCKETS;
+
+	private final RandomGenerator _seeder;
+
+	// Effort spent searching
+	//
+	private int _simsRun = 0;
+	private int _simsCancelled = 0;
+	private long _requestsRun = 0;
+
+	// Tenant breaches summed over the simulations of the last breach-free setting a bisection found, all of which ran
+	// to completion
+	//
+	private long[] _clearTenantBreaches;
 
 	private static class Configuration {
 		private final OptionParser myOp = new OptionParser();
@@ -68,6 +146,26 @@ class MonteCarloLB {
 		final OptionSpec<Integer> _totalNodesParam = myOp.accepts("h").withOptionalArg().ofType(Integer.class).defaultsTo(200);
 		final OptionSpec<Boolean> _debugModeParam = myOp.accepts("d").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
 		final OptionSpec<Boolean> _nodeStats = myOp.accepts("ns").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+		final OptionSpec<Integer> _reportParam = myOp.accepts("report").withOptionalArg().ofType(Integer.class).defaultsTo(0);
+		final OptionSpec<String> _metricsJsonParam = myOp.accepts("metrics-json").withRequiredArg().ofType(String.class);
+		final OptionSpec<String> _traceParam = myOp.accepts("trace").withRequiredArg().ofType(String.class);
+		final OptionSpec<String> _replayParam = myOp.accepts("replay").withRequiredArg().ofType(String.class);
+		final OptionSpec<Long> _seedParam = myOp.accepts("seed").withRequiredArg().ofType(Long.class);
+		final OptionSpec<SelectionStrategy> _selectionParam = myOp.accepts("e").withOptionalArg().ofType(SelectionStrategy.class).defaultsTo(SelectionStrategy.HEAP);
+		final OptionSpec<ThrottleAlgorithm> _throttleParam = myOp.accepts("throttle").withOptionalArg().ofType(ThrottleAlgorithm.class).defaultsTo(ThrottleAlgorithm.FIXED_WINDOW);
+		final OptionSpec<Integer> _tenantsParam = myOp.accepts("tenants").withOptionalArg().ofType(Integer.class).defaultsTo(0);
+		final OptionSpec<Integer> _tenantLimitParam = myOp.accepts("tenant-limit").withOptionalArg().ofType(Integer.class).defaultsTo(5);
+		final OptionSpec<Double> _tenantShareParam = myOp.accepts("tenant-share").withOptionalArg().ofType(Double.class).defaultsTo(0.5);
+		final OptionSpec<Double> _tenantSkewParam = myOp.accepts("tenant-skew").withOptionalArg().ofType(Double.class).defaultsTo(1.0);
+		final OptionSpec<ArrivalPattern> _arrivalsParam = myOp.accepts("arrivals").withOptionalArg().ofType(ArrivalPattern.class).defaultsTo(ArrivalPattern.EVEN);
+		final OptionSpec<Integer> _choicesParam = myOp.accepts("choices").withOptionalArg().ofType(Integer.class).defaultsTo(Selection.DEFAULT_CHOICES);
+		final OptionSpec<Integer> _refreshParam = myOp.accepts("refresh").withOptionalArg().ofType(Integer.class).defaultsTo((int) Selection.DEFAULT_REFRESH_MILLIS);
+		final OptionSpec<Integer> _shardsParam = myOp.accepts("shards").withOptionalArg().ofType(Integer.class).defaultsTo(1);
+		final OptionSpec<String> _weightsParam = myOp.accepts("weights").withRequiredArg().ofType(String.class);
+		final OptionSpec<ThrottleSearch> _searchParam = myOp.accepts("search").withOptionalArg().ofType(ThrottleSearch.class).defaultsTo(ThrottleSearch.STEP);
+		final OptionSpec<Boolean> _stopParam = myOp.accepts("stop").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+		final OptionSpec<Double> _confidenceParam = myOp.accepts("confidence").withOptionalArg().ofType(Double.class).defaultsTo(0.95);
+		final OptionSpec<Double> _toleranceParam = myOp.accepts("tolerance").withOptionalArg().ofType(Double.class).defaultsTo(0.25);
 
 		OptionSet produce(String[] anArgs) {
 			return myOp.parse(anArgs);
@@ -79,7 +177,20 @@ class MonteCarloLB {
 		OptionSet myOptions = myConfig.produce(anArgs);
 
 		NUM_CORES = myConfig._numCoresParam.value(myOptions);
-		SIMS_PER_SETTING = myConfig._simsPerSettingParam.value(myOptions);
+		REQUEST_LOG = myOptions.has(myConfig._replayParam) ? Paths.get(myConfig._replayParam.value(myOptions)) : null;
+
+		SELECTION = myConfig._selectionParam.value(myOptions);
+		SHARDS = myConfig._shardsParam.value(myOptions);
+
+		// A replay routed without randomness has nothing to vary so one simulation per setting says all there is to
+		// say. Random selections and sharded balancers still route from each simulation's seed.
+		//
+		SIMS_PER_SETTING = isDeterministicReplay() ? 1 : myConfig._simsPerSettingParam.value(myOptions);
+
+		// Recorded requests are to the millisecond
+		//
+		ARRIVALS = myConfig._arrivalsParam.value(myOptions);
+		TICKS_PER_MILLI = (REQUEST_LOG == null) ? ARRIVALS.getTicksPerMilli() : 1;
 		RUN_TIME_IN_SECONDS = myConfig._runTimeInSecondsParam.value(myOptions);
 		MAX_CONTRIBUTING_BUCKET = myConfig._maxContributingBucket.value(myOptions);
 		REQUESTS_PER_MINUTE = myConfig._requestsPerMinParam.value(myOptions);
@@ -88,6 +199,45 @@ class MonteCarloLB {
 		TOTAL_NODES = myConfig._totalNodesParam.value(myOptions);
 		DEBUG_MODE = myConfig._debugModeParam.value(myOptions);
 		NODE_STATS = myConfig._nodeStats.value(myOptions);
+		CHOICES = myConfig._choicesParam.value(myOptions);
+		REFRESH_MILLIS = myConfig._refreshParam.value(myOptions);
+		WEIGHTS = myOptions.has(myConfig._weightsParam) ?
+				Arrays.stream(myConfig._weightsParam.value(myOptions).split(",")).mapToDouble(Double::parseDouble).toArray() :
+				null;
+		SEARCH = myConfig._searchParam.value(myOptions);
+		THROTTLE = myConfig._throttleParam.value(myOptions);
+		TENANT_LIMIT = myConfig._tenantLimitParam.value(myOptions);
+		TENANTS = (myConfig._tenantsParam.value(myOptions) > 0) ?
+				new TenantMix(myConfig._tenantsParam.value(myOptions), myConfig._tenantSkewParam.value(myOptions),
+						myConfig._tenantShareParam.value(myOptions)) : null;
+
+		// Window counts only determine breaches for a fixed window
+		//
+		if ((SEARCH == ThrottleSearch.SINGLE_PASS) && (THROTTLE != ThrottleAlgorithm.FIXED_WINDOW))
+			throw new IllegalArgumentException(SEARCH + " search requires the " + ThrottleAlgorithm.FIXED_WINDOW +
+					" throttle");
+
+		SEQUENTIAL_STOP = myConfig._stopParam.value(myOptions);
+		CONFIDENCE = myConfig._confidenceParam.value(myOptions);
+		TOLERANCE = myConfig._toleranceParam.value(myOptions);
+		REPORT_SECONDS = myConfig._reportParam.value(myOptions);
+		METRICS_JSON = myOptions.has(myConfig._metricsJsonParam) ?
+				Paths.get(myConfig._metricsJsonParam.value(myOptions)) : null;
+		TRACE_DIR = myOptions.has(myConfig._traceParam) ? Paths.get(myConfig._traceParam.value(myOptions)) : null;
+
+		if (SHARDS < 1)
+			throw new IllegalArgumentException("Shards must be > 0");
+
+		// Sharded balancers apply requests to nodes a stripe at a time, not in the single sequence a trace records
+		//
+		if ((SHARDS > 1) && (TRACE_DIR != null))
+			throw new IllegalArgumentException("Tracing requires a single load balancer");
+
+		// Each simulation's generator is seeded from here, in submission order, so a fixed seed reproduces a run
+		// whatever the number of cores
+		//
+		_seeder = new SynchronizedRandomGenerator(myOptions.has(myConfig._seedParam) ?
+				new Well44497b(myConfig._seedParam.value(myOptions)) : new Well44497b());
 
 		int[] myBucketTimeMillis = computeBucketCeilingTimes();
 
@@ -100,6 +250,10 @@ class MonteCarloLB {
 		}
 	}
 
+	private boolean isDeterministicReplay() {
+		return (REQUEST_LOG != null) && (!SELECTION.isRandom()) && (SHARDS == 1);
+	}
+
 	private int[] computeBucketCeilingTimes() {
 		int[] myBucketTimeCeilings = new int[MAX_CONTRIBUTING_BUCKET + 1];
 		myBucketTimeCeilings[0] = 0;
@@ -128,78 +282,167 @@ class MonteCarloLB {
 			REQUESTS_PER_MINUTE + " rpm (" + REQUESTS_PER_SEC + " rps)");
 		System.out.println("Cores: " + NUM_CORES);
 
+		if (REQUEST_LOG == null)
+			System.out.println("Arrivals: " + ARRIVALS);
+		else
+			try (RequestLog myLog = new RequestLog(REQUEST_LOG)) {
+				System.out.println("Replaying: " + myLog.size() + " requests from " + REQUEST_LOG + ", " +
+						SIMS_PER_SETTING + " simulation(s) per setting");
+			}
+
+		boolean isStale = (SELECTION == SelectionStrategy.STALE) || (SELECTION == SelectionStrategy.STALE_SNAPSHOT);
+
+		System.out.println("Selection: " + SELECTION + ((SELECTION == SelectionStrategy.POWER_OF_D) ?
+				" of " + CHOICES : "") + (isStale ? " refreshed every " + REFRESH_MILLIS + " ms" : "") +
+				((WEIGHTS == null) ? "" : " weighted " + Arrays.toString(WEIGHTS)));
+		System.out.println("Throttle: " + THROTTLE);
+
+		if (SHARDS > 1)
+			System.out.println("Load balancers: " + SHARDS + " sharing the arrivals");
+
+		if ((TENANTS != null) && (REQUEST_LOG == null))
+			System.out.println("Tenants: " + TENANTS.size() + " limited to " + TENANT_LIMIT + " per server");
+
+		System.out.println("Search: " + SEARCH);
+
+		if (SEQUENTIAL_STOP)
+			System.out.println("Stopping: at " + CONFIDENCE + " confidence with breach tolerance " + TOLERANCE +
+					" (" + new StoppingRule(CONFIDENCE, TOLERANCE).clearReplicas() + " clean simulations needed)");
+
+		SimMetrics myMetrics = SimMetrics.INSTANCE;
 		ThreadPoolExecutor myExecutor = new ThreadPoolExecutor(NUM_CORES, NUM_CORES, 30,
-				TimeUnit.SECONDS, new LinkedBlockingQueue<>());
-		CompletionService<Simulator> myCompletions = new ExecutorCompletionService<>(myExecutor);
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), myMetrics.threadFactory("sim"));
+
+		myMetrics.monitor("sims", myExecutor);
+
+		// Sims block on the pool so it can't be the executor they run on
+		//
+		if (SHARDS > 1) {
+			_shardPool = new ForkJoinPool(NUM_CORES, myMetrics.forkJoinThreadFactory(), null, false);
+			myMetrics.monitor("fork-join", _shardPool);
+		}
+
+		myMetrics.registerMBean();
+
+		ScheduledExecutorService myReporter = (REPORT_SECONDS > 0) ?
+				MetricsReporter.start(myMetrics, REPORT_SECONDS, METRICS_JSON) : null;
+		long myStart = System.nanoTime();
+		int myThrottle;
+
+		try {
+			switch (SEARCH) {
+				case BISECT:
+					myThrottle = bisect(myExecutor);
+					break;
+
+				case SINGLE_PASS:
+					myThrottle = singlePass(myExecutor);
+					break;
+
+				default:
+					myThrottle = step(myExecutor);
+			}
+		} finally {
+			// A last report covering the whole run
+			//
+			if (myReporter != null) {
+				myReporter.shutdownNow();
+				new MetricsReporter(myMetrics, System.out, METRICS_JSON).run();
+			}
+
+			myExecutor.shutdownNow();
+
+			if (_shardPool != null)
+				_shardPool.shutdownNow();
+		}
+
+		System.out.format("Throttle limit: %d found after %d simulations (%d cancelled), %.0f simulated seconds in %d ms\n",
+				myThrottle, _simsRun, _simsCancelled, (double) _requestsRun / REQUESTS_PER_SEC,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - myStart));
+	}
 
+	private int step(ExecutorService anExecutor) throws Exception {
 		int myCurrentThrottle = THROTTLE_BASE;
 		long myBreachesTotal;
 
 		do {
+			// Fresh each setting so futures cancelled by a stop don't turn up in the next
+			//
+			CompletionService<Simulator> myCompletions = new ExecutorCompletionService<>(anExecutor);
+			List<Future<Simulator>> myFutures = new ArrayList<>();
+			StoppingRule myRule = new StoppingRule(CONFIDENCE, TOLERANCE);
+			int myCompleted = 0;
 			long myRequestsTotal = 0;
+			long[] myTenantBreaches = newTenantTotals();
 			myBreachesTotal = 0;
 
 			System.out.println("Throttle limit: " + myCurrentThrottle + " requests per server of which there are: " +
 					TOTAL_NODES);
 
 			for (int i = 0; i < SIMS_PER_SETTING; i++) {
-				Simulator myTask = new Simulator(DEBUG_MODE, PROTOTYPE_BUCKETS, REQUESTS_PER_SEC,
-						new LB(TOTAL_NODES, new ThrottlePolicy(myCurrentThrottle, 1000),
-								DEBUG_MODE), new Well44497b(_seeder.nextLong()));
+				Simulator myTask = newSimulator(myCurrentThrottle, _seeder.nextLong(), false);
 
-				myCompletions.submit(myTask);
+				myFutures.add(myCompletions.submit(myTask));
 			}
 
-			for (int i = 0; i < SIMS_PER_SETTING; i++) {
-				Simulator myResult = myCompletions.take().get();
-
-				myRequestsTotal += myResult.getRequestTotal();
-				myBreachesTotal += myResult.getBreachTotal();
-				
-				System.out.println("Simulation complete: " + myResult.getRequestTotal() + " rq w/ " + myResult.getBreachTotal() +
-					" throttled across " + myResult.getBreachedNodeTotal() + " nodes");
+			try {
+				while (myCompleted < SIMS_PER_SETTING) {
+					Simulator myResult = myCompletions.take().get();
 
-				if (NODE_STATS) {
-					for (Node.SimDetails myDetails : myResult.simDetailsByNode())
-						System.out.println(myDetails);
-
-					System.out.println();
-				}
+					myRequestsTotal += myResult.getRequestTotal();
+					myBreachesTotal += myResult.getBreachTotal();
+					addTenantBreaches(myTenantBreaches, myResult);
+					++myCompleted;
+					++_simsRun;
+					_requestsRun += myResult.getRequestTotal();
+					myRule.add(myResult.getBreachTotal(), myResult.getRequestTotal());
 
-				if (DEBUG_MODE) {
-					myResult.getBreachDetail().forEach((id, breaches) -> {
-						System.out.println("Node Id: " + id);
-						
-						for (Node.Breach myBreach : breaches)
-							System.out.print(myBreach);
+					report(myResult);
 
-						System.out.println();
-					});
+					if (SEQUENTIAL_STOP && myRule.isDecided())
+						break;
 				}
+			} finally {
+				for (Future<Simulator> myFuture : myFutures)
+					if (myFuture.cancel(true))
+						++_simsCancelled;
 			}
 
 			System.out.println();
 			System.out.println("Total Requests: " + myRequestsTotal);
 			System.out.println("Total Breaches: " + myBreachesTotal);
 			System.out.format("Breaches vs Total: %% %.6g\n", ((double) myBreachesTotal / (double) myRequestsTotal) * 100);
+			reportTenants(myTenantBreaches);
+
+			// Estimate the breaches a full set of simulations would have seen so the increment is comparable
+			//
+			long myBreachesEstimate = myBreachesTotal;
+
+			if (myCompleted < SIMS_PER_SETTING) {
+				myBreachesEstimate = Math.round(myRule.meanBreaches() * SIMS_PER_SETTING);
+
+				System.out.println("Stopped after " + myCompleted + " of " + SIMS_PER_SETTING +
+						" simulations, clearly " + (myRule.isClearlyBreachFree() ? "breach-free" : "breaching") +
+						", estimated breaches: " + myBreachesEstimate);
+			}
 
 			/*
- 			 Generally, if we increment the throttle by 1 we expect to approx halve the number of breaches.
- 			 Thus to determine the number of steps x we'd need to take, we must solve:
+			  Generally, if we increment the throttle by 1 we expect to approx halve the number of breaches.
+			  Thus to determine the number of steps x we'd need to take, we must solve:
 
- 			 current_beaches - 2 ^ x = 0
+			  current_beaches - 2 ^ x = 0
 
- 			 Thus:
+			  Thus:
 
- 			 breaches = 2^x
+			  breaches = 2^x
 
- 			 We can solve this with logs as log10(breaches) / log10(2)
+			  We can solve this with logs as log10(breaches) / log10(2)
 
- 			 To avoid non-termination we apply max(1).
+			  To avoid non-termination we apply max(1).
 			*/
 
 			if (myBreachesTotal != 0) {
-				double myApproxIncr = Math.ceil(Math.log10(myBreachesTotal) / Math.log10(2));
+				double myApproxIncr = Math.ceil(Math.log10(myBreachesEstimate) / Math.log10(2));
 				int myIncr = (int) Math.max(myApproxIncr, 1.0);
 
 				System.out.println("Computed Increment: " + myIncr);
@@ -208,9 +451,273 @@ class MonteCarloLB {
 			}
 
 			System.out.println();
-			
+
 		} while (myBreachesTotal != 0);
 
-		myExecutor.shutdownNow();
+		return myCurrentThrottle;
+	}
+
+	private int bisect(ExecutorService anExecutor) throws Exception {
+		// Re-using the same seeds at every setting means a simulation's routing is identical whatever the limit so
+		// breach-free at one limit implies breach-free at all higher ones, which is what makes bisection sound
+		//
+		// When stopping early only as many seeds as are needed to establish a breach-free setting are used
+		//
+		long[] mySeeds = new long[SEQUENTIAL_STOP ?
+				Math.min(SIMS_PER_SETTING, new StoppingRule(CONFIDENCE, TOLERANCE).clearReplicas()) :
+				SIMS_PER_SETTING];
+
+		for (int i = 0; i < mySeeds.length; i++)
+			mySeeds[i] = _seeder.nextLong();
+
+		// Invariant: myLow breaches (or is zero, which rejects everything) and myHigh doesn't
+		//
+		int myLow;
+		int myHigh;
+		int myStep = 1;
+
+		if (isBreachFree(anExecutor, THROTTLE_BASE, mySeeds)) {
+			myHigh = THROTTLE_BASE;
+			myLow = Math.max(myHigh - myStep, 0);
+
+			while ((myLow > 0) && isBreachFree(anExecutor, myLow, mySeeds)) {
+				myHigh = myLow;
+				myStep *= 2;
+				myLow = Math.max(myHigh - myStep, 0);
+			}
+		} else {
+			myLow = THROTTLE_BASE;
+			myHigh = myLow + myStep;
+
+			while (!isBreachFree(anExecutor, myHigh, mySeeds)) {
+				myLow = myHigh;
+				myStep *= 2;
+				myHigh = myLow + myStep;
+			}
+		}
+
+		while (myHigh - myLow > 1) {
+			int myMid = (myLow + myHigh) >>> 1;
+
+			if (isBreachFree(anExecutor, myMid, mySeeds))
+				myHigh = myMid;
+			else
+				myLow = myMid;
+		}
+
+		// Every move of myHigh follows a breach-free setting so the last one's tenant breaches are those of myHigh.
+		// Tenants are limited before the node throttle, routing is the same at any limit and so are they.
+		//
+		reportTenants(_clearTenantBreaches);
+
+		return myHigh;
+	}
+
+	private int singlePass(ExecutorService anExecutor) throws Exception {
+		CompletionService<Simulator> myCompletions = new ExecutorCompletionService<>(anExecutor);
+		CountHistogram myWindowCounts = new CountHistogram();
+		CountHistogram myPeakCounts = new CountHistogram();
+		long[] myTenantBreaches = newTenantTotals();
+		long myRequestsTotal = 0;
+
+		System.out.println("Window counts for " + TOTAL_NODES + " servers");
+
+		// No limit will ever be breached, we're only interested in the window counts
+		//
+		for (int i = 0; i < SIMS_PER_SETTING; i++)
+			myCompletions.submit(newSimulator(Integer.MAX_VALUE, _seeder.nextLong(), false));
+
+		for (int i = 0; i < SIMS_PER_SETTING; i++) {
+			Simulator myResult = myCompletions.take().get();
+
+			++_simsRun;
+			_requestsRun += myResult.getRequestTotal();
+			myRequestsTotal += myResult.getRequestTotal();
+			myWindowCounts.add(myResult.getWindowCounts());
+			myPeakCounts.add(myResult.getPeakCounts());
+			addTenantBreaches(myTenantBreaches, myResult);
+
+			System.out.println("Simulation complete: " + myResult.getRequestTotal() + " rq w/ busiest window " +
+					myResult.getWindowCounts().maxCount());
+
+			if (NODE_STATS) {
+				for (Node.SimDetails myDetails : myResult.simDetailsByNode())
+					System.out.println(myDetails);
+
+				System.out.println();
+			}
+		}
+
+		// Breaches for limits from the base up to the first that is never exceeded
+		//
+		int myThrottle = myWindowCounts.maxCount();
+
+		System.out.println();
+		System.out.println("Total Requests: " + myRequestsTotal);
+		reportTenants(myTenantBreaches);
+		System.out.println("Limit  Breaches  Breaches vs Total  Breached nodes per sim");
+
+		for (int myLimit = Math.max(Math.min(THROTTLE_BASE, myThrottle), 1); myLimit <= myThrottle; myLimit++) {
+			long myBreaches = myWindowCounts.excessOver(myLimit);
+
+			System.out.format("%5d  %8d  %% %15.6g  %.1f\n", myLimit, myBreaches,
+					((double) myBreaches / (double) myRequestsTotal) * 100,
+					(double) myPeakCounts.countAbove(myLimit) / SIMS_PER_SETTING);
+		}
+
+		System.out.println();
+
+		return myThrottle;
+	}
+
+	private boolean isBreachFree(ExecutorService anExecutor, int aThrottle, long[] aSeeds) throws Exception {
+		CompletionService<Simulator> myCompletions = new ExecutorCompletionService<>(anExecutor);
+		List<Future<Simulator>> myFutures = new ArrayList<>();
+		long[] myTenantBreaches = newTenantTotals();
+
+		System.out.print("Throttle limit: " + aThrottle + " requests per server of which there are: " +
+				TOTAL_NODES + " ");
+
+		for (long mySeed : aSeeds)
+			myFutures.add(myCompletions.submit(newSimulator(aThrottle, mySeed, true)));
+
+		try {
+			for (int i = 0; i < aSeeds.length; i++) {
+				Future<Simulator> myDone = myCompletions.take();
+				Simulator myResult = myDone.get();
+
+				++_simsRun;
+				_requestsRun += myResult.getRequestTotal();
+				addTenantBreaches(myTenantBreaches, myResult);
+
+				if (myResult.getBreachTotal() != 0) {
+					System.out.println("breached");
+
+					// A seed that breaches at one limit is the most likely to breach at the next so submit it first
+					//
+					int myIndex = myFutures.indexOf(myDone);
+					long mySeed = aSeeds[myIndex];
+
+					System.arraycopy(aSeeds, 0, aSeeds, 1, myIndex);
+					aSeeds[0] = mySeed;
+
+					return false;
+				}
+			}
+
+			System.out.println("clear");
+			_clearTenantBreaches = myTenantBreaches;
+			return true;
+		} finally {
+			for (Future<Simulator> myFuture : myFutures)
+				if (myFuture.cancel(true))
+					++_simsCancelled;
+		}
+	}
+
+	private Simulator newSimulator(int aThrottle, long aSeed, boolean shouldStopOnBreach) throws IOException {
+		if (REQUEST_LOG != null)
+			return new Simulator(DEBUG_MODE, REQUEST_LOG, newBalancer(aThrottle, aSeed), shouldStopOnBreach);
+
+		RandomGenerator myGen = new Well44497b(aSeed);
+
+		return new Simulator(DEBUG_MODE, PROTOTYPE_BUCKETS,
+				ARRIVALS.create(REQUESTS_PER_SEC, RUN_TIME_IN_SECONDS, myGen), TENANTS, newBalancer(aThrottle, aSeed), myGen,
+				shouldStopOnBreach);
+	}
+
+	/**
+	 * @param aSeed for strategies that route at random, the same seed routes the same way at any limit
+	 */
+	private LB newBalancer(int aThrottle, long aSeed) throws IOException {
+		ThrottlePolicy myPolicy = new ThrottlePolicy(aThrottle, 1000L * TICKS_PER_MILLI, THROTTLE);
+		TraceSink myTrace = null;
+
+		if (TRACE_DIR != null) {
+			Files.createDirectories(TRACE_DIR);
+			myTrace = new TraceSink(TRACE_DIR.resolve(String.format("sim-%05d-limit-%d.trace",
+					_traceCount.getAndIncrement(), aThrottle)), myPolicy, TICKS_PER_MILLI, TOTAL_NODES);
+		}
+
+		ThrottlePolicy myTenantPolicy = (TENANTS == null) ? null :
+				new ThrottlePolicy(TENANT_LIMIT, 1000L * TICKS_PER_MILLI);
+		Selection mySelection = new Selection(SELECTION, CHOICES, WEIGHTS, (long) REFRESH_MILLIS * TICKS_PER_MILLI,
+				TICKS_PER_MILLI, aSeed);
+
+		if (SHARDS > 1)
+			return new ShardedLB(_shardPool, SHARDS, TOTAL_NODES, myPolicy, myTenantPolicy, DEBUG_MODE, mySelection,
+					aSeed);
+
+		return new LB(TOTAL_NODES, myPolicy, myTenantPolicy, DEBUG_MODE, mySelection, myTrace);
+	}
+
+	private long[] newTenantTotals() {
+		return new long[(TENANTS == null) ? 0 : TENANTS.size()];
+	}
+
+	private static void addTenantBreaches(long[] aTotals, Simulator aResult) {
+		long[] myBreaches = aResult.getTenantBreaches();
+
+		for (int i = 0; i < myBreaches.length; i++)
+			aTotals[i] += myBreaches[i];
+	}
+
+	/**
+	 * Print the total tenant breaches and the tenants with the most
+	 */
+	private void reportTenants(long[] aTotals) {
+		if ((TENANTS == null) || (REQUEST_LOG != null))
+			return;
+
+		long myTotal = 0;
+		int myBreached = 0;
+
+		for (long myBreaches : aTotals) {
+			myTotal += myBreaches;
+
+			if (myBreaches != 0)
+				++myBreached;
+		}
+
+		// Order tenant ids by breaches, most first
+		//
+		Integer[] myTenants = new Integer[aTotals.length];
+
+		for (int i = 0; i < myTenants.length; i++)
+			myTenants[i] = i;
+
+		Arrays.sort(myTenants, (aLeft, aRight) -> Long.compare(aTotals[aRight], aTotals[aLeft]));
+
+		StringBuilder myWorst = new StringBuilder();
+
+		for (int i = 0; (i < Math.min(5, myTenants.length)) && (aTotals[myTenants[i]] != 0); i++)
+			myWorst.append(' ').append(myTenants[i]).append('=').append(aTotals[myTenants[i]]);
+
+		System.out.println("Tenant Breaches: " + myTotal + " across " + myBreached + " of " + aTotals.length +
+				" tenants" + ((myWorst.length() == 0) ? "" : ", most:" + myWorst));
+	}
+
+	private void report(Simulator aResult) {
+		System.out.println("Simulation complete: " + aResult.getRequestTotal() + " rq w/ " + aResult.getBreachTotal() +
+			" throttled across " + aResult.getBreachedNodeTotal() + " nodes" +
+			((TENANTS == null) || (REQUEST_LOG != null) ? "" : ", " + aResult.getTenantBreachTotal() + " tenant breaches"));
+
+		if (NODE_STATS) {
+			for (Node.SimDetails myDetails : aResult.simDetailsByNode())
+				System.out.println(myDetails);
+
+			System.out.println();
+		}
+
+		if (DEBUG_MODE) {
+			aResult.getBreachDetail().forEach((id, breaches) -> {
+				System.out.println("Node Id: " + id);
+
+				for (Node.Breach myBreach : breaches)
+					System.out.print(myBreach);
+
+				System.out.println();
+			});
+		}
 	}
-}
\ No newline at end of file
+}
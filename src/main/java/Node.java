@@ -1,61 +1,32 @@
-import java.util.*;
+import java.util.LinkedList;
+import java.util.List;
 
 /*
-    To simulate a customer specific load we'd need to generate a random load for them
-    and then a further random background load to run alongside and in sum be the correct
-    number of requests per second to follow the general trend
-
-    We'd need each request to be labelled with a source, customer or general and then each
-    node would need a list of limits per customer it tracks. Implication of this is we need
-    to introduce a throttle class with a designation of source to apply to and what the limit is
-    into node which would then maintain a list of requests against each throttle. This could be
-    effected by offering the request to the throttle which can then decide to track it or not
-    and be part of the cull cycle.
+    Customer specific load is simulated by labelling requests with a tenant (see TenantMix) alongside
+    general background load which, in sum, make up the requests per second of the general trend.
+
+    Each node enforces its own throttle on all requests and, if given a tenant policy, a limit per
+    tenant as well. A request over its tenant's limit is rejected before it reaches the node
+    throttle, taking no connection and not counting against the node's limit. Tenant state is a
+    window and count per tenant seen, kept in a primitive map (TenantCounters) rather than a list of
+    requests per tenant, and needs no cull cycle.
 */
-class Node {
-    private static class ValueComparator implements Comparator<Request> {
-        interface Accessor {
-            long getValue(Request aRequest);
-        }
-
-        private final Accessor _accessor;
-
-        ValueComparator(Accessor anAccessor) {
-            _accessor = anAccessor;
-        }
-
-        public int compare(Request a, Request b) {
-            long test = _accessor.getValue(a) - _accessor.getValue(b);
-
-            // If the requests are equal on the given attribute, fall back to their id to assert an order
-            //
-            if (test == 0)
-                return normalize(a.getId() - b.getId());
-            else
-                return normalize(test);
-        }
-
-        private int normalize(long aComparison) {
-            if (aComparison < 0)
-                return -1;
-            else if (aComparison > 0)
-                return 1;
-            else {
-                return 0;
-            }
-        }
-    }
-
+class Node implements Connections {
     private final int _id;
 
     // Active requests (which can terminate millisecond by millisecond)
     //
-    private final SortedSet<Request> _requests =
-            new TreeSet<>(new ValueComparator(Request::getExpiry));
+    private final ConnectionTracker _connections = new ConnectionTracker();
 
-    // Requests in scope of the throttles
+    // Requests counted against the throttle, however the policy enforces it
     //
-    private final Queue<Request> _inThrottleScope = new LinkedList<>();
+    private final Throttle _throttle;
+
+    // Requests per throttle window, whatever the limit, with the current window's count kept separately
+    //
+    private final CountHistogram _windowCounts = new CountHistogram();
+    private long _window = -1;
+    private int _windowCount = 0;
 
     private long _totalBreaches = 0;
     private long _totalRequests = 0;
@@ -63,13 +34,28 @@ class Node {
     private final ThrottlePolicy _policy;
     private final boolean _recordBreaches;
 
+    // Per tenant limits, if any
+    //
+    private final TenantCounters _tenants;
+    private long _tenantBreaches = 0;
+    private boolean _tenantRejected = false;
+
     // Throttle breaches we've seen over the run
     //
     private final List<Breach> _breaches = new LinkedList<>();
 
     Node(int anId, ThrottlePolicy aPolicy, boolean shouldRecordBreaches) {
+        this(anId, aPolicy, null, shouldRecordBreaches);
+    }
+
+    /**
+     * @param aTenantPolicy the limit each tenant is held to, enforced as a fixed window, or <code>null</code> for none
+     */
+    Node(int anId, ThrottlePolicy aPolicy, ThrottlePolicy aTenantPolicy, boolean shouldRecordBreaches) {
         _id = anId;
         _policy = aPolicy;
+        _throttle = aPolicy.newThrottle();
+        _tenants = (aTenantPolicy == null) ? null : new TenantCounters(aTenantPolicy);
         _recordBreaches = shouldRecordBreaches;
     }
 
@@ -121,65 +107,132 @@ class Node {
         return _totalRequests;
     }
 
-    int currentConnections(long aCurrentTime) {
-        cull(aCurrentTime);
-        return _requests.size();
+    long getTenantBreachCount() {
+        return _tenantBreaches;
+    }
+
+    /**
+     * Add this node's breaches for each tenant to <code>aTotals</code>, indexed by tenant id
+     */
+    void addTenantBreaches(long[] aTotals) {
+        if (_tenants != null)
+            _tenants.addBreaches(aTotals);
+    }
+
+    /**
+     * @return the number of requests that arrived in each throttle window so far, including the current one
+     */
+    CountHistogram getWindowCounts() {
+        CountHistogram myCounts = _windowCounts.copy();
+
+        if (_windowCount != 0)
+            myCounts.record(_windowCount);
+
+        return myCounts;
+    }
+
+    /**
+     * @return requests counted against the throttle as of the last admission
+     */
+    int inScopeCount() {
+        return _throttle.inScope();
+    }
+
+    @Override
+    public int currentConnections(long aCurrentTime) {
+        return _connections.currentConnections(aCurrentTime);
+    }
+
+    @Override
+    public int activeConnections() {
+        return _connections.activeConnections();
+    }
+
+    @Override
+    public long nextExpiry() {
+        return _connections.nextExpiry();
     }
 
     boolean incomingRequest(int aRequestDuration, long aCurrentTime) {
-        ++_totalRequests;
+        return incomingRequest(aRequestDuration, aCurrentTime, TenantMix.NO_TENANT);
+    }
 
-        Request myReq = new Request(aRequestDuration, aCurrentTime);
-        _requests.add(myReq);
-        _inThrottleScope.add(myReq);
+    /**
+     * @return <code>true</code> if the last incoming request was rejected for breaching its tenant's limit, so took no
+     * connection
+     */
+    boolean wasTenantRejected() {
+        return _tenantRejected;
+    }
 
-        if (_inThrottleScope.size() > _policy.getMax()) {
-            if (_recordBreaches)
-                _breaches.add(new Breach(aCurrentTime, _requests.size(), _inThrottleScope.size(), _policy.getMax()));
+    /**
+     * @param aTenant the tenant sending the request, or {@link TenantMix#NO_TENANT}
+     * @return <code>true</code> if the request breached the node's throttle, a request rejected for breaching its
+     * tenant's limit never reaches the throttle and is counted separately
+     */
+    boolean incomingRequest(int aRequestDuration, long aCurrentTime, int aTenant) {
+        ++_totalRequests;
 
-            ++_totalBreaches;
-            return true;
+        _tenantRejected = (aTenant != TenantMix.NO_TENANT) && (_tenants != null) &&
+                _tenants.breaches(aTenant, aCurrentTime);
+
+        if (_tenantRejected) {
+            ++_tenantBreaches;
+            return false;
         }
 
-        return false;
-    }
+        _connections.add(aCurrentTime + aRequestDuration);
+
+        long myWindow = aCurrentTime / _policy.getScopeMillis();
 
-    private void cull(long aCurrentTime) {
-        Request myRequest;
+        if (myWindow != _window) {
+            if (_windowCount != 0)
+                _windowCounts.record(_windowCount);
 
-        while ((!_requests.isEmpty()) && (myRequest = _requests.first()) != null) {
-            // List is oldest to newest so first that hasn't expired means there will be no more
-            //
-            if (myRequest.hasExpired(aCurrentTime))
-                _requests.remove(myRequest);
-            else
-                break;
+            _window = myWindow;
+            _windowCount = 0;
         }
 
-        while ((myRequest = _inThrottleScope.peek()) != null) {
-            if (_policy.outOfScope(myRequest, aCurrentTime))
-                _inThrottleScope.remove();
-            else
-                break;
+        ++_windowCount;
+
+        if (_throttle.breaches(aCurrentTime)) {
+            if (_recordBreaches)
+                _breaches.add(new Breach(new Request(_totalRequests, aRequestDuration, aCurrentTime),
+                        _connections.activeConnections(), _throttle.inScope(), _policy.getMax()));
+
+            ++_totalBreaches;
+            return true;
         }
+
+        return false;
     }
 
     static class Breach {
+        private final Request _request;
         private final long _breachTime;
         private final int _queueSize;
         private final int _limit;
         private final int _throttleScope;
 
-        Breach(long aTime, int aQueueSize, int aThrottleScope, int aLimit) {
-            _breachTime = aTime;
+        Breach(Request aRequest, int aQueueSize, int aThrottleScope, int aLimit) {
+            _request = aRequest;
+            _breachTime = aRequest.getStartTime();
             _queueSize = aQueueSize;
             _throttleScope = aThrottleScope;
             _limit = aLimit;
         }
 
+        Request getRequest() {
+            return _request;
+        }
+
         public String toString() {
-            return "Breach @ " + _breachTime + " with queue size " + _queueSize +
-                    " of which in scope " + _throttleScope + " against limit " + _limit;
+            return describe(_breachTime, _queueSize, _throttleScope, _limit);
+        }
+
+        static String describe(long aBreachTime, int aQueueSize, int aThrottleScope, int aLimit) {
+            return "Breach @ " + aBreachTime + " with queue size " + aQueueSize +
+                    " of which in scope " + aThrottleScope + " against limit " + aLimit;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/**
+ * Chooses the node an incoming request should be routed to. Implementations are driven by a single
+ * {@link LB} and see requests in time order.
+ */
+interface NodeSelector {
+    /**
+     * @return the index of the chosen node which must have been culled to <code>aCurrentTime</code>
+     */
+    int select(long aCurrentTime);
+
+    /**
+     * @param aKey identifies the request's source for selectors that route by it, a tenant or
+     *             {@link TenantMix#NO_TENANT}
+     * @return the index of the chosen node which must have been culled to <code>aCurrentTime</code>
+     */
+    default int select(long aCurrentTime, int aKey) {
+        return select(aCurrentTime);
+    }
+
+    /**
+     * Invoked once the chosen node has accepted the request.
+     */
+    void admitted(int anIndex, int aDuration, long aCurrentTime);
+
+    /**
+     * Invoked by a balancer that only learns after the fact that a request it reported admitted was rejected for
+     * breaching its tenant's limit. The connection has already been withdrawn from the node's
+     * {@link Connections}.
+     *
+     * @param aRequestTime when the request was admitted, earlier than times already given to {@link #select}
+     */
+    default void withdrawn(int anIndex, int aDuration, long aRequestTime) {
+    }
+}
@@ -0,0 +1,62 @@
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * A two state Markov modulated Poisson process. Bursts arrive at a multiple of the mean rate, quiet periods at a
+ * fraction of it, and each lasts an exponentially distributed time. The quiet periods are long enough that the
+ * overall rate is the mean. Microsecond resolution.
+ */
+class OnOffArrivals implements ArrivalProcess {
+    private static final double BURST_FACTOR = 3.0;
+    private static final double QUIET_FACTOR = 0.5;
+    private static final double MEAN_BURST_MILLIS = 500;
+
+    // Fraction of time spent bursting for the rates to average out at the mean
+    //
+    private static final double BURST_SHARE = (1 - QUIET_FACTOR) / (BURST_FACTOR - QUIET_FACTOR);
+
+    private final double _burstGap;
+    private final double _quietGap;
+    private final double _meanBurst = MEAN_BURST_MILLIS * MICROS_PER_MILLI;
+    private final double _meanQuiet = _meanBurst * (1 - BURST_SHARE) / BURST_SHARE;
+    private final RandomGenerator _rng;
+    private double _time = 0;
+    private boolean _bursting;
+    private double _stateEnd;
+
+    OnOffArrivals(int aReqsPerSec, RandomGenerator aRng) {
+        if (aReqsPerSec <= 0)
+            throw new IllegalArgumentException("Requests per Second must be > 0");
+
+        double myMeanGap = 1000.0 * MICROS_PER_MILLI / aReqsPerSec;
+
+        _burstGap = myMeanGap / BURST_FACTOR;
+        _quietGap = myMeanGap / QUIET_FACTOR;
+        _rng = aRng;
+        _bursting = aRng.nextDouble() < BURST_SHARE;
+        _stateEnd = PoissonArrivals.exponential(aRng, _bursting ? _meanBurst : _meanQuiet);
+    }
+
+    @Override
+    public int ticksPerMilli() {
+        return MICROS_PER_MILLI;
+    }
+
+    @Override
+    public void fill(long[] aTimes, int aCount) {
+        for (int i = 0; i < aCount; i++) {
+            // Gaps are memoryless so one that overruns the state can be discarded and redrawn at the new rate
+            //
+            double myNext = _time + PoissonArrivals.exponential(_rng, _bursting ? _burstGap : _quietGap);
+
+            while (myNext >= _stateEnd) {
+                _time = _stateEnd;
+                _bursting = !_bursting;
+                _stateEnd = _time + PoissonArrivals.exponential(_rng, _bursting ? _meanBurst : _meanQuiet);
+                myNext = _time + PoissonArrivals.exponential(_rng, _bursting ? _burstGap : _quietGap);
+            }
+
+            _time = myNext;
+            aTimes[i] = (long) _time;
+        }
+    }
+}
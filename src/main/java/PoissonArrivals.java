@@ -0,0 +1,35 @@
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Arrivals at a constant mean rate with exponentially distributed gaps, at microsecond resolution.
+ */
+class PoissonArrivals implements ArrivalProcess {
+    private final double _meanGap;
+    private final RandomGenerator _rng;
+    private double _time = 0;
+
+    PoissonArrivals(int aReqsPerSec, RandomGenerator aRng) {
+        if (aReqsPerSec <= 0)
+            throw new IllegalArgumentException("Requests per Second must be > 0");
+
+        _meanGap = 1000.0 * MICROS_PER_MILLI / aReqsPerSec;
+        _rng = aRng;
+    }
+
+    @Override
+    public int ticksPerMilli() {
+        return MICROS_PER_MILLI;
+    }
+
+    @Override
+    public void fill(long[] aTimes, int aCount) {
+        for (int i = 0; i < aCount; i++) {
+            _time += exponential(_rng, _meanGap);
+            aTimes[i] = (long) _time;
+        }
+    }
+
+    static double exponential(RandomGenerator aRng, double aMean) {
+        return -aMean * Math.log1p(-aRng.nextDouble());
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Samples d distinct nodes at random and picks the one with the least connections (the first sampled on a tie),
+ * JSQ(d). Only the sampled nodes are culled so each request costs O(d) whatever the size of the cluster, and d of two
+ * already avoids most of the imbalance of choosing at random.
+ */
+class PowerOfChoices implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+    private final int _choices;
+    private final SplittableRandom _rng;
+    private final int[] _sampled;
+
+    PowerOfChoices(List<? extends Connections> aNodes, int aChoices, SplittableRandom aRng) {
+        _nodes = aNodes;
+        _choices = Math.min(aChoices, aNodes.size());
+        _rng = aRng;
+        _sampled = new int[_choices];
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        int myFavouriteConnectionCount = Integer.MAX_VALUE;
+        int myFavouriteNode = -1;
+
+        for (int i = 0; i < _choices; i++) {
+            int myNode = sample(i);
+            int myConnectionCount = _nodes.get(myNode).currentConnections(aCurrentTime);
+
+            _sampled[i] = myNode;
+
+            if (myConnectionCount < myFavouriteConnectionCount) {
+                myFavouriteConnectionCount = myConnectionCount;
+                myFavouriteNode = myNode;
+            }
+        }
+
+        return myFavouriteNode;
+    }
+
+    // Redraw any node already sampled, d is small so the check is cheap
+    //
+    private int sample(int aSampledSoFar) {
+        while (true) {
+            int myNode = _rng.nextInt(_nodes.size());
+            boolean isRepeat = false;
+
+            for (int i = 0; i < aSampledSoFar; i++)
+                if (_sampled[i] == myNode)
+                    isRepeat = true;
+
+            if (!isRepeat)
+                return myNode;
+        }
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+    }
+}
@@ -1,10 +1,14 @@
+/**
+ * Ids are allocated by whoever creates the request (e.g. per node) rather than from a shared counter so that
+ * concurrent simulations neither contend nor perturb each other.
+ */
 class Request {
-    private static long _nextId = 0;
     private final long _expiry;
     private final long _startTime;
-    private final long _id = _nextId++;
+    private final long _id;
 
-    Request(int aRequestDuration, long aCurrentTime) {
+    Request(long anId, int aRequestDuration, long aCurrentTime) {
+        _id = anId;
         _expiry = aRequestDuration + aCurrentTime;
         _startTime = aCurrentTime;
     }
@@ -0,0 +1,109 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams requests written by {@link RequestLogWriter} from a memory-mapped file so logs far bigger than the heap can
+ * be replayed. The file is mapped a segment (a whole number of records, at most a gigabyte or so) at a time, pages
+ * being brought in by the OS as they're read and dropped under pressure. A log is read once, front to back, by a
+ * single thread; open one per replay.
+ */
+class RequestLog implements Closeable {
+    private static final int SEGMENT_RECORDS = (1 << 30) / RequestLogWriter.RECORD_BYTES;
+
+    private final Path _file;
+    private final FileChannel _channel;
+    private final long _size;
+    private long _mapped = 0;
+    private MappedByteBuffer _segment;
+
+    RequestLog(Path aFile) throws IOException {
+        _file = aFile;
+        _channel = FileChannel.open(aFile, StandardOpenOption.READ);
+
+        try {
+            long myBytes = _channel.size() - RequestLogWriter.HEADER_BYTES;
+
+            if (myBytes < 0)
+                throw new IOException("Truncated request log header: " + aFile);
+
+            if (myBytes % RequestLogWriter.RECORD_BYTES != 0)
+                throw new IOException("Truncated request log: " + aFile);
+
+            MappedByteBuffer myHeader = _channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    RequestLogWriter.HEADER_BYTES);
+
+            if (myHeader.getInt() != RequestLogWriter.MAGIC)
+                throw new IOException("Not a request log: " + aFile);
+
+            short myVersion = myHeader.getShort();
+
+            if (myVersion != RequestLogWriter.VERSION)
+                throw new IOException("Unsupported request log version " + myVersion + ": " + aFile);
+
+            _size = myBytes / RequestLogWriter.RECORD_BYTES;
+        } catch (IOException anE) {
+            _channel.close();
+            throw anE;
+        }
+    }
+
+    /**
+     * @return the number of requests in the log
+     */
+    long size() {
+        return _size;
+    }
+
+    /**
+     * Read the next requests into the arrays
+     *
+     * @return the number read, less than the length of the arrays only when the log is exhausted
+     */
+    int fill(long[] aTimes, int[] aDurations) {
+        int myCount = 0;
+
+        while (myCount < aTimes.length) {
+            if ((_segment == null) || !_segment.hasRemaining()) {
+                if (_mapped == _size)
+                    break;
+
+                map();
+            }
+
+            int myAvailable = Math.min(aTimes.length - myCount, _segment.remaining() / RequestLogWriter.RECORD_BYTES);
+
+            for (int i = 0; i < myAvailable; i++) {
+                aTimes[myCount] = _segment.getLong();
+                aDurations[myCount] = _segment.getInt();
+                ++myCount;
+            }
+        }
+
+        return myCount;
+    }
+
+    private void map() {
+        long myRecords = Math.min(SEGMENT_RECORDS, _size - _mapped);
+
+        try {
+            _segment = _channel.map(FileChannel.MapMode.READ_ONLY,
+                    RequestLogWriter.HEADER_BYTES + _mapped * RequestLogWriter.RECORD_BYTES,
+                    myRecords * RequestLogWriter.RECORD_BYTES);
+        } catch (IOException anE) {
+            throw new UncheckedIOException("Couldn't map " + _file, anE);
+        }
+
+        _mapped += myRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _segment = null;
+        _channel.close();
+    }
+}
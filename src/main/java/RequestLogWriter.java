@@ -0,0 +1,79 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes recorded requests in the form {@link RequestLog} replays. Records are gathered in a direct buffer and handed
+ * to a {@link FileChannel} a megabyte at a time.
+ *
+ * The file is a header (magic, version) followed by records of arrival time in millis (long) and duration in millis
+ * (int), all big-endian and in arrival order.
+ */
+class RequestLogWriter implements Closeable {
+    static final int MAGIC = 0x5453524C;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 4 + 2;
+    static final int RECORD_BYTES = 8 + 4;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel _channel;
+    private final ByteBuffer _buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long _lastTime = Long.MIN_VALUE;
+    private long _count = 0;
+
+    RequestLogWriter(Path aFile) throws IOException {
+        _channel = FileChannel.open(aFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        _buffer.putInt(MAGIC).putShort(VERSION);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request arrived before the last one written or has a negative duration
+     */
+    void append(long aTime, int aDuration) {
+        if (aTime < _lastTime)
+            throw new IllegalArgumentException("Request at " + aTime + " precedes last at " + _lastTime);
+
+        if (aDuration < 0)
+            throw new IllegalArgumentException("Negative duration: " + aDuration);
+
+        if (_buffer.remaining() < RECORD_BYTES)
+            flush();
+
+        _buffer.putLong(aTime).putInt(aDuration);
+        _lastTime = aTime;
+        ++_count;
+    }
+
+    long getCount() {
+        return _count;
+    }
+
+    private void flush() {
+        _buffer.flip();
+
+        try {
+            while (_buffer.hasRemaining())
+                _channel.write(_buffer);
+        } catch (IOException anE) {
+            throw new UncheckedIOException("Couldn't write request log", anE);
+        }
+
+        _buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            _channel.close();
+        }
+    }
+}
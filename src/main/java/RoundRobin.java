@@ -0,0 +1,27 @@
+import java.util.List;
+
+/**
+ * Sends each request to the next node in turn, blind to load.
+ */
+class RoundRobin implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+    private int _next = 0;
+
+    RoundRobin(List<? extends Connections> aNodes) {
+        _nodes = aNodes;
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        int myChoice = _next;
+
+        _next = (_next + 1 == _nodes.size()) ? 0 : _next + 1;
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+    }
+}
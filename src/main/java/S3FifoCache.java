@@ -0,0 +1,114 @@
+/**
+ * S3-FIFO (Yang et al.): three FIFO queues. New keys enter a small queue holding a tenth of the cache, most are
+ * one-hit wonders and leave quickly. Those hit while there move on to the main queue, the rest are remembered in a
+ * ghost queue so that if they come back soon they go straight to main. Main is a FIFO with reinsertion, an entry
+ * hit since it last reached the tail goes round again. Hits only bump a small counter, nothing is reordered.
+ */
+class S3FifoCache implements KeyCache {
+    private static final int SMALL = 0;
+    private static final int MAIN = 1;
+    private static final int GHOST = 2;
+
+    private static final int MAX_FREQUENCY = 3;
+
+    private final int _capacity;
+    private final int _smallCapacity;
+    private final int _mainCapacity;
+    private final IntEntries _entries;
+    private final IntLinkedLists _queues;
+    private final byte[] _frequencies;
+
+    S3FifoCache(int aCapacity) {
+        _capacity = aCapacity;
+        _smallCapacity = Math.max(1, aCapacity / 10);
+        _mainCapacity = Math.max(1, aCapacity - _smallCapacity);
+
+        // Ghosts remember as many keys as main holds
+        //
+        int myEntries = aCapacity + _mainCapacity;
+
+        _entries = new IntEntries(myEntries);
+        _queues = new IntLinkedLists(myEntries, 3);
+        _frequencies = new byte[myEntries];
+    }
+
+    static double bytesPerEntry(int aCapacity) {
+        int myEntries = aCapacity + Math.max(1, aCapacity - Math.max(1, aCapacity / 10));
+
+        return (IntEntries.bytesPerEntry(myEntries) + IntLinkedLists.bytesPerEntry() + 1) * myEntries / aCapacity;
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int myEntry = _entries.find(aKey);
+
+        if ((myEntry != IntEntries.NONE) && (_queues.listOf(myEntry) != GHOST)) {
+            if (_frequencies[myEntry] < MAX_FREQUENCY)
+                ++_frequencies[myEntry];
+
+            return true;
+        }
+
+        // A returning ghost comes off its queue first so eviction can't discard it from under us
+        //
+        if (myEntry != IntEntries.NONE)
+            _queues.unlink(myEntry);
+
+        if (_queues.size(SMALL) + _queues.size(MAIN) == _capacity)
+            evict();
+
+        if (myEntry != IntEntries.NONE) {
+            _queues.pushFront(MAIN, myEntry);
+        } else {
+            myEntry = _entries.add(aKey);
+            _queues.pushFront(SMALL, myEntry);
+        }
+
+        _frequencies[myEntry] = 0;
+
+        return false;
+    }
+
+    private void evict() {
+        while ((_queues.size(SMALL) >= _smallCapacity) || (_queues.size(MAIN) == 0)) {
+            int myTail = _queues.tail(SMALL);
+
+            if (_frequencies[myTail] == 0) {
+                if (_queues.size(GHOST) == _mainCapacity)
+                    discard(_queues.tail(GHOST));
+
+                _queues.moveToFront(GHOST, myTail);
+                return;
+            }
+
+            // Hit whilst in small, promote it which frees nothing unless main overflows
+            //
+            _frequencies[myTail] = 0;
+            _queues.moveToFront(MAIN, myTail);
+
+            if (_queues.size(MAIN) > _mainCapacity)
+                break;
+        }
+
+        evictMain();
+    }
+
+    private void evictMain() {
+        while (true) {
+            int myTail = _queues.tail(MAIN);
+
+            if (_frequencies[myTail] > 0) {
+                --_frequencies[myTail];
+                _queues.moveToFront(MAIN, myTail);
+            } else {
+                discard(myTail);
+                return;
+            }
+        }
+    }
+
+    private void discard(int anEntry) {
+        _queues.unlink(anEntry);
+        _entries.remove(anEntry);
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link SelectionStrategy} with the settings some strategies need: how many nodes to sample per request, the
+ * relative weight of each node, how often a stale view of node load is refreshed, the ticks per millisecond request
+ * times are in and a seed for those that choose at random. Seeding from a simulation's own seed keeps its routing the
+ * same whatever the throttle limit.
+ */
+class Selection {
+    static final int DEFAULT_CHOICES = 2;
+    static final long DEFAULT_REFRESH_MILLIS = 100;
+
+    private final SelectionStrategy _strategy;
+    private final int _choices;
+    private final double[] _weights;
+    private final long _refreshTicks;
+    private final int _ticksPerMilli;
+    private final long _seed;
+
+    Selection(SelectionStrategy aStrategy) {
+        this(aStrategy, DEFAULT_CHOICES, null, DEFAULT_REFRESH_MILLIS, 0);
+    }
+
+    /**
+     * @param aWeights relative node weights, repeated across the nodes if there are fewer, or <code>null</code> for
+     *                 equal weights
+     * @param aRefreshTicks interval between snapshots of node load, in the same ticks as request times
+     */
+    Selection(SelectionStrategy aStrategy, int aChoices, double[] aWeights, long aRefreshTicks, long aSeed) {
+        this(aStrategy, aChoices, aWeights, aRefreshTicks, 1, aSeed);
+    }
+
+    /**
+     * @param aTicksPerMilli the resolution of request times, as given by the arrival process
+     */
+    Selection(SelectionStrategy aStrategy, int aChoices, double[] aWeights, long aRefreshTicks, int aTicksPerMilli,
+              long aSeed) {
+        if (aChoices < 1)
+            throw new IllegalArgumentException("Choices must be > 0");
+
+        _strategy = aStrategy;
+        _choices = aChoices;
+        _weights = aWeights;
+        _refreshTicks = aRefreshTicks;
+        _ticksPerMilli = aTicksPerMilli;
+        _seed = aSeed;
+    }
+
+    /**
+     * @return the same settings with another seed, so balancers routing side by side don't choose in step
+     */
+    Selection withSeed(long aSeed) {
+        return new Selection(_strategy, _choices, _weights, _refreshTicks, _ticksPerMilli, aSeed);
+    }
+
+    NodeSelector create(List<? extends Connections> aNodes) {
+        return _strategy.create(aNodes, this);
+    }
+
+    SelectionStrategy getStrategy() {
+        return _strategy;
+    }
+
+    int getChoices() {
+        return _choices;
+    }
+
+    long getRefreshTicks() {
+        return _refreshTicks;
+    }
+
+    int getTicksPerMilli() {
+        return _ticksPerMilli;
+    }
+
+    double weight(int aNode) {
+        return (_weights == null) ? 1.0 : _weights[aNode % _weights.length];
+    }
+
+    SplittableRandom newRandom() {
+        return new SplittableRandom(_seed);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.List;
+
+/**
+ * The ways an {@link LB} can pick a node, selectable from the command line by name.
+ */
+public enum SelectionStrategy {
+    // Least connections, visiting every node per request
+    //
+    SCAN {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new LeastConnectionsScan(aNodes);
+        }
+    },
+
+    // Least connections, identical choices to SCAN but O(log N)
+    //
+    HEAP {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new LeastConnectionsHeap(aNodes);
+        }
+    },
+
+    // Least connections, identical choices to SCAN with counts maintained by a global queue of expiry events
+    //
+    EVENT {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new LeastConnectionsEvents(aNodes, aSelection.getTicksPerMilli());
+        }
+    },
+
+    // Least connections from a snapshot of node loads refreshed every interval, plus the balancer's own requests since
+    //
+    STALE {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new StaleLeastConnections(aNodes, aSelection.getRefreshTicks(), true);
+        }
+    },
+
+    // Least connections from a snapshot of node loads refreshed every interval and frozen in between
+    //
+    STALE_SNAPSHOT {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new StaleLeastConnections(aNodes, aSelection.getRefreshTicks(), false);
+        }
+    },
+
+    // Least connections of d nodes sampled at random, d given by the selection's choices
+    //
+    POWER_OF_D {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new PowerOfChoices(aNodes, aSelection.getChoices(), aSelection.newRandom());
+        }
+
+        @Override
+        boolean isRandom() {
+            return true;
+        }
+    },
+
+    // Each node in turn
+    //
+    ROUND_ROBIN {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new RoundRobin(aNodes);
+        }
+    },
+
+    // At random in proportion to node weight
+    //
+    WEIGHTED_RANDOM {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new WeightedRandom(aNodes, aSelection, aSelection.newRandom());
+        }
+
+        @Override
+        boolean isRandom() {
+            return true;
+        }
+    },
+
+    // By hash of the request's tenant on a ring with points in proportion to node weight
+    //
+    CONSISTENT_HASH {
+        NodeSelector create(List<? extends Connections> aNodes, Selection aSelection) {
+            return new ConsistentHash(aNodes, aSelection, aSelection.newRandom());
+        }
+
+        @Override
+        boolean isRandom() {
+            return true;
+        }
+    };
+
+    /**
+     * @return a selector with the default settings
+     */
+    NodeSelector create(List<? extends Connections> aNodes) {
+        return create(aNodes, new Selection(this));
+    }
+
+    /**
+     * @return <code>true</code> if choices depend on the selection's seed, for consistent hashing those of untenanted
+     * requests
+     */
+    boolean isRandom() {
+        return false;
+    }
+
+    abstract NodeSelector create(List<? extends Connections> aNodes, Selection aSelection);
+}
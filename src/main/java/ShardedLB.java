@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Several load balancers, each taking a share of the arrivals, routing independently to one pool of nodes on a
+ * {@link ForkJoinPool}. Every request is given to a balancer by a generator split from the sim's seed and, like a real
+ * balancer, each one knows only the connections it has opened itself, counted by a {@link ConnectionTracker} per node,
+ * so balancers route their share of a chunk concurrently. The nodes are then striped across tasks, each applying its
+ * nodes' requests in stream order. No balancer or node is ever touched by two tasks at once so the outcome for a seed
+ * is the same whatever the size of the pool. A balancer learns which of its requests were rejected for breaching
+ * their tenant's limit once the chunk has been applied, and withdraws them. A single balancer sees every connection so
+ * routes through the nodes themselves, exactly as an {@link LB}.
+ *
+ * Routing never depends on the throttle limit so, as with {@link LB}, a seed routes the same way at any limit.
+ */
+class ShardedLB extends LB {
+    private final ForkJoinPool _pool;
+    private final SplittableRandom _router;
+    private final Shard[] _shards;
+    private final int _stripes;
+
+    // Only one chunk is ever in flight so its routing scratch space can be shared
+    //
+    private final int[] _shardOf = new int[CHUNK_SIZE];
+    private final int[] _byShard = new int[CHUNK_SIZE];
+    private final int[] _targets = new int[CHUNK_SIZE];
+    private final int[] _byNode = new int[CHUNK_SIZE];
+    private final boolean[] _rejected = new boolean[CHUNK_SIZE];
+    private final int[] _nodeOffsets;
+    private final long[] _stripeBreaches;
+
+    /**
+     * @param aTenantPolicy the limit each node holds each tenant to, or <code>null</code> for none
+     * @param aSelection how every balancer chooses a node, each seeded from <code>aSeed</code> in turn
+     */
+    ShardedLB(ForkJoinPool aPool, int aNumShards, int aNumNodes, ThrottlePolicy aPolicy, ThrottlePolicy aTenantPolicy,
+              boolean isDebug, Selection aSelection, long aSeed) {
+        // Routing is left to the shards unless there's only one
+        //
+        super(newNodes(aNumNodes, aPolicy, aTenantPolicy, isDebug), (aNumShards == 1) ? aSelection : null, null);
+
+        if (aNumShards < 1)
+            throw new IllegalArgumentException("Shards must be > 0");
+
+        _pool = aPool;
+        _router = new SplittableRandom(aSeed);
+        _shards = new Shard[(aNumShards == 1) ? 0 : aNumShards];
+
+        for (int i = 0; i < _shards.length; i++)
+            _shards[i] = new Shard(aNumNodes, aSelection.withSeed(_router.nextLong()));
+
+        // A few stripes per worker to even out nodes that are busier than others
+        //
+        _stripes = Math.min(aNumNodes, aPool.getParallelism() * 4);
+        _nodeOffsets = new int[aNumNodes + 1];
+        _stripeBreaches = new long[_stripes];
+    }
+
+    /**
+     * A breach is only acted upon once the chunk it is in has been applied, requests after it are still counted
+     *
+     * @return <code>true</code> if stopped on a breach
+     */
+    @Override
+    boolean routeAll(long[] aTimes, int[] aDurations, int[] aTenants, int aCount, int aTicksPerMilli,
+                     boolean shouldStopOnBreach) {
+        if (_shards.length == 0)
+            return super.routeAll(aTimes, aDurations, aTenants, aCount, aTicksPerMilli, shouldStopOnBreach);
+
+        _pool.invoke(new Chunk(aTimes, aDurations, aTenants, aCount, aTicksPerMilli));
+
+        long myBreaches = 0;
+
+        for (long myStripe : _stripeBreaches)
+            myBreaches += myStripe;
+
+        return shouldStopOnBreach && (myBreaches != 0);
+    }
+
+    private static class Shard {
+        private final List<ConnectionTracker> _view = new ArrayList<>();
+        private final NodeSelector _selector;
+
+        Shard(int aNumNodes, Selection aSelection) {
+            for (int i = 0; i < aNumNodes; i++)
+                _view.add(new ConnectionTracker());
+
+            _selector = aSelection.create(_view);
+        }
+    }
+
+    private class Chunk extends RecursiveAction {
+        private final long[] _times;
+        private final int[] _durations;
+        private final int[] _tenants;
+        private final int _count;
+        private final int _ticksPerMilli;
+
+        Chunk(long[] aTimes, int[] aDurations, int[] aTenants, int aCount, int aTicksPerMilli) {
+            _times = aTimes;
+            _durations = aDurations;
+            _tenants = aTenants;
+            _count = aCount;
+            _ticksPerMilli = aTicksPerMilli;
+        }
+
+        @Override
+        protected void compute() {
+            int[] myOffsets = new int[_shards.length + 1];
+
+            for (int i = 0; i < _count; i++) {
+                int myShard = _router.nextInt(_shards.length);
+
+                _shardOf[i] = myShard;
+                ++myOffsets[myShard + 1];
+            }
+
+            for (int i = 0; i < _shards.length; i++)
+                myOffsets[i + 1] += myOffsets[i];
+
+            // Group requests by shard, preserving stream order within each group
+            //
+            group(_shardOf, myOffsets, _byShard);
+
+            List<Route> myRoutes = new ArrayList<>();
+
+            for (int i = 0; i < _shards.length; i++)
+                if (myOffsets[i + 1] > myOffsets[i])
+                    myRoutes.add(new Route(this, _shards[i], myOffsets[i], myOffsets[i + 1]));
+
+            ForkJoinTask.invokeAll(myRoutes);
+
+            // Then by the node each was sent to, so nodes see requests in stream order whichever balancer sent them
+            //
+            Arrays.fill(_nodeOffsets, 0);
+
+            for (int i = 0; i < _count; i++)
+                ++_nodeOffsets[_targets[i] + 1];
+
+            for (int i = 0; i < _nodeOffsets.length - 1; i++)
+                _nodeOffsets[i + 1] += _nodeOffsets[i];
+
+            group(_targets, _nodeOffsets, _byNode);
+
+            List<Apply> myApplies = new ArrayList<>();
+            int myNodes = _nodeOffsets.length - 1;
+
+            for (int i = 0; i < _stripes; i++)
+                myApplies.add(new Apply(this, i, myNodes * i / _stripes, myNodes * (i + 1) / _stripes));
+
+            ForkJoinTask.invokeAll(myApplies);
+
+            // Only now do the balancers learn which of their requests were rejected for their tenant
+            //
+            if (_tenants != null) {
+                List<Withdraw> myWithdraws = new ArrayList<>();
+
+                for (int i = 0; i < _shards.length; i++)
+                    if (myOffsets[i + 1] > myOffsets[i])
+                        myWithdraws.add(new Withdraw(this, _shards[i], myOffsets[i], myOffsets[i + 1]));
+
+                ForkJoinTask.invokeAll(myWithdraws);
+            }
+        }
+
+        /**
+         * Write the index of each request to <code>aGrouped</code>, grouped by <code>aGroupOf</code> in stream order
+         */
+        private void group(int[] aGroupOf, int[] anOffsets, int[] aGrouped) {
+            int[] myPositions = anOffsets.clone();
+
+            for (int i = 0; i < _count; i++)
+                aGrouped[myPositions[aGroupOf[i]]++] = i;
+        }
+
+        int duration(int anIndex) {
+            return _durations[anIndex] * _ticksPerMilli;
+        }
+
+        int tenant(int anIndex) {
+            return (_tenants == null) ? TenantMix.NO_TENANT : _tenants[anIndex];
+        }
+    }
+
+    private class Route extends RecursiveAction {
+        private final Chunk _chunk;
+        private final Shard _shard;
+        private final int _from;
+        private final int _to;
+
+        Route(Chunk aChunk, Shard aShard, int aFrom, int aTo) {
+            _chunk = aChunk;
+            _shard = aShard;
+            _from = aFrom;
+            _to = aTo;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = _from; i < _to; i++) {
+                int myRequest = _byShard[i];
+                long myTime = _chunk._times[myRequest];
+                int myDuration = _chunk.duration(myRequest);
+                int myTarget = _shard._selector.select(myTime, _chunk.tenant(myRequest));
+
+                _shard._view.get(myTarget).add(myTime + myDuration);
+                _shard._selector.admitted(myTarget, myDuration, myTime);
+                _targets[myRequest] = myTarget;
+            }
+        }
+    }
+
+    private class Withdraw extends RecursiveAction {
+        private final Chunk _chunk;
+        private final Shard _shard;
+        private final int _from;
+        private final int _to;
+
+        Withdraw(Chunk aChunk, Shard aShard, int aFrom, int aTo) {
+            _chunk = aChunk;
+            _shard = aShard;
+            _from = aFrom;
+            _to = aTo;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = _from; i < _to; i++) {
+                int myRequest = _byShard[i];
+
+                if (_rejected[myRequest]) {
+                    long myTime = _chunk._times[myRequest];
+                    int myDuration = _chunk.duration(myRequest);
+                    int myTarget = _targets[myRequest];
+
+                    _shard._view.get(myTarget).withdraw(myTime + myDuration);
+                    _shard._selector.withdrawn(myTarget, myDuration, myTime);
+                }
+            }
+        }
+    }
+
+    private class Apply extends RecursiveAction {
+        private final Chunk _chunk;
+        private final int _stripe;
+        private final int _fromNode;
+        private final int _toNode;
+
+        Apply(Chunk aChunk, int aStripe, int aFromNode, int aToNode) {
+            _chunk = aChunk;
+            _stripe = aStripe;
+            _fromNode = aFromNode;
+            _toNode = aToNode;
+        }
+
+        @Override
+        protected void compute() {
+            List<Node> myNodes = getNodes();
+            int myBreaches = 0;
+
+            for (int i = _nodeOffsets[_fromNode]; i < _nodeOffsets[_toNode]; i++) {
+                int myRequest = _byNode[i];
+                long myTime = _chunk._times[myRequest];
+                Node myNode = myNodes.get(_targets[myRequest]);
+
+                // No selector culls the shared nodes
+                //
+                myNode.currentConnections(myTime);
+
+                if (myNode.incomingRequest(_chunk.duration(myRequest), myTime, _chunk.tenant(myRequest)))
+                    ++myBreaches;
+
+                _rejected[myRequest] = myNode.wasTenantRejected();
+            }
+
+            _stripeBreaches[_stripe] = myBreaches;
+
+            SimMetrics.INSTANCE.requests(_nodeOffsets[_toNode] - _nodeOffsets[_fromNode], myBreaches);
+        }
+    }
+}
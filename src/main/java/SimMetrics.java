@@ -0,0 +1,234 @@
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Process wide counters for simulation progress. Simulations add to striped {@link LongAdder}s in bulk (a chunk or
+ * batch of requests at a time) so the hot loops never contend, and {@link MetricsReporter} or JMX read them
+ * whenever they like. Executors and their worker threads can be registered so backlog and per worker CPU use can
+ * be reported alongside, busy workers burning little CPU being the signature of lock contention.
+ */
+class SimMetrics implements SimMetricsMBean {
+    static final SimMetrics INSTANCE = new SimMetrics();
+
+    private final long _startNanos = System.nanoTime();
+    private final LongAdder _requests = new LongAdder();
+    private final LongAdder _events = new LongAdder();
+    private final LongAdder _simsStarted = new LongAdder();
+    private final LongAdder _simsCompleted = new LongAdder();
+    private final LongAdder _simsCancelled = new LongAdder();
+    private final LongAdder _simNanos = new LongAdder();
+    private final LongAccumulator _maxSimNanos = new LongAccumulator(Math::max, 0);
+
+    private final List<Backlog> _backlogs = new CopyOnWriteArrayList<>();
+    private final List<Thread> _workers = new CopyOnWriteArrayList<>();
+    private final ThreadMXBean _threads = ManagementFactory.getThreadMXBean();
+
+    private SimMetrics() {
+    }
+
+    /**
+     * Expose the metrics over JMX as <code>throttlesim:type=SimMetrics</code>, repeat calls are ignored
+     */
+    void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("throttlesim:type=SimMetrics"));
+        } catch (InstanceAlreadyExistsException anE) {
+            // Already registered
+        } catch (JMException anE) {
+            throw new IllegalStateException("Couldn't register metrics", anE);
+        }
+    }
+
+    /**
+     * @param anEvents the notable outcomes amongst them, breaches for a load balancer, hits for a cache
+     */
+    void requests(long aRequests, long anEvents) {
+        _requests.add(aRequests);
+        _events.add(anEvents);
+    }
+
+    void simStarted() {
+        _simsStarted.increment();
+    }
+
+    void simCompleted(long anElapsedNanos) {
+        _simsCompleted.increment();
+        _simNanos.add(anElapsedNanos);
+        _maxSimNanos.accumulate(anElapsedNanos);
+    }
+
+    /**
+     * A simulation that started but ended without completing, interrupted or failed, and so has no elapsed time
+     */
+    void simCancelled() {
+        _simsCancelled.increment();
+    }
+
+    /**
+     * @return a factory whose threads have their CPU use reported
+     */
+    ThreadFactory threadFactory(String aPrefix) {
+        AtomicInteger myCount = new AtomicInteger();
+
+        return aRunnable -> {
+            Thread myThread = new Thread(aRunnable, aPrefix + "-" + myCount.getAndIncrement());
+
+            _workers.add(myThread);
+            return myThread;
+        };
+    }
+
+    /**
+     * @return a factory whose threads have their CPU use reported
+     */
+    ForkJoinPool.ForkJoinWorkerThreadFactory forkJoinThreadFactory() {
+        return aPool -> {
+            ForkJoinWorkerThread myThread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(aPool);
+
+            _workers.add(myThread);
+            return myThread;
+        };
+    }
+
+    void monitor(String aName, ThreadPoolExecutor anExecutor) {
+        _backlogs.add(new Backlog(aName, () -> anExecutor.getQueue().size(), anExecutor::getActiveCount,
+                anExecutor::getMaximumPoolSize));
+    }
+
+    void monitor(String aName, ForkJoinPool aPool) {
+        _backlogs.add(new Backlog(aName, () -> (int) Math.min(aPool.getQueuedTaskCount() +
+                aPool.getQueuedSubmissionCount(), Integer.MAX_VALUE), aPool::getActiveThreadCount,
+                aPool::getParallelism));
+    }
+
+    static class Backlog {
+        private final String _name;
+        private final IntSupplier _queued;
+        private final IntSupplier _active;
+        private final IntSupplier _workers;
+
+        Backlog(String aName, IntSupplier aQueued, IntSupplier anActive, IntSupplier aWorkers) {
+            _name = aName;
+            _queued = aQueued;
+            _active = anActive;
+            _workers = aWorkers;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        int queued() {
+            return _queued.getAsInt();
+        }
+
+        int active() {
+            return _active.getAsInt();
+        }
+
+        int workers() {
+            return _workers.getAsInt();
+        }
+    }
+
+    List<Backlog> backlogs() {
+        return _backlogs;
+    }
+
+    /**
+     * @return live registered worker threads, terminated ones are forgotten
+     */
+    List<Thread> workers() {
+        _workers.removeIf(aThread -> aThread.getState() == Thread.State.TERMINATED);
+
+        return new ArrayList<>(_workers);
+    }
+
+    /**
+     * @return CPU time consumed by the thread so far, -1 if unavailable
+     */
+    long cpuNanos(Thread aThread) {
+        return _threads.isThreadCpuTimeSupported() ? _threads.getThreadCpuTime(aThread.getId()) : -1;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - _startNanos;
+    }
+
+    @Override
+    public long getRequests() {
+        return _requests.sum();
+    }
+
+    @Override
+    public long getEvents() {
+        return _events.sum();
+    }
+
+    @Override
+    public double getRequestsPerSecond() {
+        return getRequests() / (elapsedNanos() / 1e9);
+    }
+
+    @Override
+    public long getSimulationsStarted() {
+        return _simsStarted.sum();
+    }
+
+    @Override
+    public long getSimulationsCompleted() {
+        return _simsCompleted.sum();
+    }
+
+    @Override
+    public long getSimulationsCancelled() {
+        return _simsCancelled.sum();
+    }
+
+    @Override
+    public double getMeanSimulationMillis() {
+        long myCompleted = getSimulationsCompleted();
+
+        return (myCompleted == 0) ? 0 : _simNanos.sum() / 1e6 / myCompleted;
+    }
+
+    @Override
+    public double getMaxSimulationMillis() {
+        return _maxSimNanos.get() / 1e6;
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        int myTotal = 0;
+
+        for (Backlog myBacklog : _backlogs)
+            myTotal += myBacklog.queued();
+
+        return myTotal;
+    }
+
+    @Override
+    public int getActiveWorkers() {
+        int myTotal = 0;
+
+        for (Backlog myBacklog : _backlogs)
+            myTotal += myBacklog.active();
+
+        return myTotal;
+    }
+}
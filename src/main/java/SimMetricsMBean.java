@@ -0,0 +1,24 @@
+/**
+ * JMX view of {@link SimMetrics}, rates are averaged since start.
+ */
+public interface SimMetricsMBean {
+    long getRequests();
+
+    long getEvents();
+
+    double getRequestsPerSecond();
+
+    long getSimulationsStarted();
+
+    long getSimulationsCompleted();
+
+    long getSimulationsCancelled();
+
+    double getMeanSimulationMillis();
+
+    double getMaxSimulationMillis();
+
+    int getQueuedTasks();
+
+    int getActiveWorkers();
+}
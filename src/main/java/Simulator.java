@@ -1,7 +1,10 @@
 import org.apache.commons.math3.random.RandomGenerator;
-import sample.Bucket;
-import sample.BucketConsumer;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,29 +14,110 @@ import java.util.stream.Collectors;
 class Simulator implements Callable<Simulator> {
     private final boolean _debug;
     private final LB _loadBalancer;
-    private final int _reqsPerSec;
-    private final BucketConsumer<Integer> _consumer;
+    private final ArrivalProcess _arrivals;
+    private final TenantMix _tenants;
+    private final IntBucketConsumer _consumer;
+    private final Path _requestLog;
+    private final boolean _stopOnBreach;
     private long _requestTotal = 0;
     private long _breachTotal = 0;
     private int _breachedNodeCount = 0;
+    private final CountHistogram _windowCounts = new CountHistogram();
+    private final CountHistogram _peakCounts = new CountHistogram();
+    private final long[] _tenantBreaches;
+    private long _tenantBreachTotal = 0;
     private final Map<Integer, List<Node.Breach>> _breachDetail = new HashMap<>();
 
-    Simulator(boolean isDebug, Bucket<Integer>[] aBuckets, int aReqsPerSec, LB aBalancer,
+    Simulator(boolean isDebug, IntBucket[] aBuckets, int aReqsPerSec, LB aBalancer,
               RandomGenerator aGen) {
+        this(isDebug, aBuckets, aReqsPerSec, aBalancer, aGen, false);
+    }
+
+    /**
+     * @param shouldStopOnBreach end the run at the first breach, for when all that matters is whether there is one
+     */
+    Simulator(boolean isDebug, IntBucket[] aBuckets, int aReqsPerSec, LB aBalancer,
+              RandomGenerator aGen, boolean shouldStopOnBreach) {
+        this(isDebug, aBuckets, new EvenArrivals(aReqsPerSec), aBalancer, aGen, shouldStopOnBreach);
+    }
+
+    /**
+     * @param anArrivals when requests arrive, the balancer's throttle scope must be in the same ticks
+     */
+    Simulator(boolean isDebug, IntBucket[] aBuckets, ArrivalProcess anArrivals, LB aBalancer,
+              RandomGenerator aGen, boolean shouldStopOnBreach) {
+        this(isDebug, aBuckets, anArrivals, null, aBalancer, aGen, shouldStopOnBreach);
+    }
+
+    /**
+     * @param aTenants the tenant mix to label requests from, using <code>aGen</code>, or <code>null</code>
+     */
+    Simulator(boolean isDebug, IntBucket[] aBuckets, ArrivalProcess anArrivals, TenantMix aTenants, LB aBalancer,
+              RandomGenerator aGen, boolean shouldStopOnBreach) {
+        _stopOnBreach = shouldStopOnBreach;
         _debug = isDebug;
-        _consumer = new BucketConsumer<>(aBuckets, aGen);
-        _reqsPerSec = aReqsPerSec;
+        _consumer = new IntBucketConsumer(aBuckets, aGen);
+        _arrivals = anArrivals;
+        _tenants = (aTenants == null) ? null : aTenants.withGenerator(aGen);
+        _tenantBreaches = (aTenants == null) ? new long[0] : new long[aTenants.size()];
         _loadBalancer = aBalancer;
+        _requestLog = null;
+    }
+
+    /**
+     * Replay recorded requests rather than generating them
+     *
+     * @param aRequestLog a log written by {@link RequestLogWriter}
+     */
+    Simulator(boolean isDebug, Path aRequestLog, LB aBalancer, boolean shouldStopOnBreach) {
+        _stopOnBreach = shouldStopOnBreach;
+        _debug = isDebug;
+        _consumer = null;
+        _arrivals = null;
+        _tenants = null;
+        _tenantBreaches = new long[0];
+        _loadBalancer = aBalancer;
+        _requestLog = aRequestLog;
     }
 
     @Override
     public Simulator call() {
-        _loadBalancer.allocate(_consumer, _reqsPerSec);
+        long myStart = System.nanoTime();
+
+        boolean isAllocated = false;
+
+        SimMetrics.INSTANCE.simStarted();
+
+        try {
+            if (_requestLog == null)
+                _loadBalancer.allocate(_consumer, _arrivals, _tenants, _stopOnBreach);
+            else
+                replay();
+
+            isAllocated = true;
+        } finally {
+            // Cancelled simulations must still be accounted for or started and completed never converge
+            //
+            if (!isAllocated)
+                SimMetrics.INSTANCE.simCancelled();
+
+            try {
+                _loadBalancer.closeTrace();
+            } catch (IOException anE) {
+                throw new UncheckedIOException("Couldn't complete trace", anE);
+            }
+        }
 
         for (Node myNode : _loadBalancer.getNodes()) {
             long myBreaches = myNode.getBreachCount();
 
+            CountHistogram myWindowCounts = myNode.getWindowCounts();
+
             _requestTotal += myNode.getRequestCount();
+            _windowCounts.add(myWindowCounts);
+            _peakCounts.record(myWindowCounts.maxCount());
+            _tenantBreachTotal += myNode.getTenantBreachCount();
+            myNode.addTenantBreaches(_tenantBreaches);
 
             if (myBreaches != 0) {
                 _breachTotal += myBreaches;
@@ -47,9 +131,18 @@ class Simulator implements Callable<Simulator> {
             }
         }
 
+        SimMetrics.INSTANCE.simCompleted(System.nanoTime() - myStart);
         return this;
     }
 
+    private void replay() {
+        try (RequestLog myLog = new RequestLog(_requestLog)) {
+            _loadBalancer.replay(myLog, _stopOnBreach);
+        } catch (IOException anE) {
+            throw new UncheckedIOException("Couldn't replay " + _requestLog, anE);
+        }
+    }
+
     Map<Integer, List<Node.Breach>> getBreachDetail() { return _breachDetail; }
 
     long getRequestTotal() { return _requestTotal; }
@@ -58,6 +151,23 @@ class Simulator implements Callable<Simulator> {
 
     int getBreachedNodeTotal() { return _breachedNodeCount; }
 
+    long getTenantBreachTotal() { return _tenantBreachTotal; }
+
+    /**
+     * @return breaches of each tenant's limit across all nodes, indexed by tenant id
+     */
+    long[] getTenantBreaches() { return _tenantBreaches; }
+
+    /**
+     * @return requests per throttle window across all nodes, from which breaches for any limit can be computed
+     */
+    CountHistogram getWindowCounts() { return _windowCounts; }
+
+    /**
+     * @return each node's busiest throttle window, from which breached nodes for any limit can be computed
+     */
+    CountHistogram getPeakCounts() { return _peakCounts; }
+
     List<Node.SimDetails> simDetailsByNode() {
         return _loadBalancer.getNodes().stream().map(Node::getSimDetails).collect(Collectors.toList());
     }
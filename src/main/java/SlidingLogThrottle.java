@@ -0,0 +1,31 @@
+/**
+ * Keeps the arrival times of admitted requests still within scope. Since no more than the maximum are ever admitted
+ * in a scope the log is bounded by the limit (or the requests in a scope if fewer).
+ */
+class SlidingLogThrottle implements Throttle {
+    private final int _max;
+    private final long _scope;
+    private final LongRingBuffer _admitted = new LongRingBuffer();
+
+    SlidingLogThrottle(ThrottlePolicy aPolicy) {
+        _max = aPolicy.getMax();
+        _scope = aPolicy.getScopeMillis();
+    }
+
+    @Override
+    public boolean breaches(long aCurrentTime) {
+        while ((!_admitted.isEmpty()) && (_admitted.peek() <= aCurrentTime - _scope))
+            _admitted.poll();
+
+        if (_admitted.size() >= _max)
+            return true;
+
+        _admitted.add(aCurrentTime);
+        return false;
+    }
+
+    @Override
+    public int inScope() {
+        return _admitted.size();
+    }
+}
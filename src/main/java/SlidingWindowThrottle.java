@@ -0,0 +1,46 @@
+/**
+ * Estimates the requests in the scope preceding each request from the counts of the current and previous aligned
+ * windows, assuming the previous window's requests were spread evenly across it.
+ */
+class SlidingWindowThrottle implements Throttle {
+    private final int _max;
+    private final long _scope;
+    private long _window = -1;
+    private int _previous = 0;
+    private int _current = 0;
+    private double _estimate = 0;
+
+    SlidingWindowThrottle(ThrottlePolicy aPolicy) {
+        _max = aPolicy.getMax();
+        _scope = aPolicy.getScopeMillis();
+    }
+
+    @Override
+    public boolean breaches(long aCurrentTime) {
+        long myWindow = aCurrentTime / _scope;
+
+        if (myWindow != _window) {
+            _previous = (myWindow == _window + 1) ? _current : 0;
+            _current = 0;
+            _window = myWindow;
+        }
+
+        // Share of the previous window still within scope
+        //
+        double myOverlap = (double) ((myWindow + 1) * _scope - aCurrentTime) / _scope;
+
+        _estimate = _previous * myOverlap + _current;
+
+        if (_estimate + 1 > _max)
+            return true;
+
+        ++_current;
+        ++_estimate;
+        return false;
+    }
+
+    @Override
+    public int inScope() {
+        return (int) Math.round(_estimate);
+    }
+}
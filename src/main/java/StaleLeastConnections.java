@@ -0,0 +1,72 @@
+import java.util.List;
+
+/**
+ * Least connections as a balancer fed periodic load reports sees it: node loads are read only every refresh interval.
+ *
+ * Counting its own requests (STALE), the balancer adds each request it sends to the snapshot and learns nothing else
+ * until the next refresh. Connections that finish go unseen so the nodes that have just freed up, which exact least
+ * connections would pile requests onto, look as busy as ever. The longer the interval the closer routing gets to
+ * round robin, which it becomes once no refresh falls within the run.
+ *
+ * Without counting its own requests (STALE_SNAPSHOT), the view is frozen between refreshes so every request until the
+ * next goes to the node that was least loaded at the last: the herd that makes stale load reports dangerous, worse
+ * the longer the interval.
+ *
+ * Loads live in a heap ordered by connection count (then index, as {@link LeastConnectionsScan}) so a choice is
+ * O(log N) and nodes are only visited at a refresh. With a refresh every tick the choices are those of the scan.
+ */
+class StaleLeastConnections implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+    private final long _refreshInterval;
+    private final boolean _countsOwnRequests;
+    private final int[] _connections;
+    private final IndexedMinHeap _byLoad;
+    private long _nextRefresh = Long.MIN_VALUE;
+
+    /**
+     * @param aRefreshInterval ticks between snapshots of node load
+     * @param shouldCountOwnRequests add requests sent to the snapshot until the next refresh, rather than freezing it
+     */
+    StaleLeastConnections(List<? extends Connections> aNodes, long aRefreshInterval, boolean shouldCountOwnRequests) {
+        if (aRefreshInterval < 1)
+            throw new IllegalArgumentException("Refresh interval must be > 0");
+
+        _nodes = aNodes;
+        _refreshInterval = aRefreshInterval;
+        _countsOwnRequests = shouldCountOwnRequests;
+        _connections = new int[aNodes.size()];
+        _byLoad = new IndexedMinHeap(aNodes.size());
+    }
+
+    private static long loadKey(int aConnections, int anIndex) {
+        return ((long) aConnections << 32) | anIndex;
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        if (aCurrentTime >= _nextRefresh) {
+            for (int i = 0; i < _nodes.size(); i++) {
+                _connections[i] = _nodes.get(i).currentConnections(aCurrentTime);
+                _byLoad.set(i, loadKey(_connections[i], i));
+            }
+
+            _nextRefresh = aCurrentTime + _refreshInterval;
+        }
+
+        int myChoice = _byLoad.peek();
+
+        // Keep the node itself up to date, we just don't look at the answer
+        //
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+        // A request over as soon as it starts adds no load
+        //
+        if (_countsOwnRequests && (aDuration > 0))
+            _byLoad.set(anIndex, loadKey(++_connections[anIndex], anIndex));
+    }
+}
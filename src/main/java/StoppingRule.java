@@ -0,0 +1,75 @@
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Sequential test applied as the replicas for a throttle setting complete, deciding whether the rest need running.
+ * A setting is clearly breaching once the confidence interval of the per replica breach rate excludes zero. It is
+ * clearly breach-free once enough replicas have come back clean to bound the chance of any one replica breaching
+ * below the tolerance, at the configured confidence.
+ */
+class StoppingRule {
+    // Fewer replicas than this give too loose an estimate of variance to trust
+    //
+    private static final int MIN_REPLICAS = 3;
+
+    private final double _confidence;
+    private final int _clearReplicas;
+    private final SummaryStatistics _rates = new SummaryStatistics();
+    private long _breaches = 0;
+
+    /**
+     * @param aConfidence in the range (0, 1)
+     * @param aTolerance largest acceptable probability of a replica breaching, in the range (0, 1)
+     */
+    StoppingRule(double aConfidence, double aTolerance) {
+        if ((aConfidence <= 0) || (aConfidence >= 1))
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+
+        if ((aTolerance <= 0) || (aTolerance >= 1))
+            throw new IllegalArgumentException("Tolerance must be between 0 and 1");
+
+        _confidence = aConfidence;
+
+        // With n clean replicas the chance of seeing that were the breach probability p is (1 - p)^n. Solve for
+        // the n at which that drops to 1 - confidence for p at the tolerance.
+        //
+        _clearReplicas = (int) Math.ceil(Math.log(1 - aConfidence) / Math.log(1 - aTolerance));
+    }
+
+    /**
+     * @return the number of clean replicas needed to declare a setting breach-free
+     */
+    int clearReplicas() {
+        return _clearReplicas;
+    }
+
+    void add(long aBreaches, long aRequests) {
+        _breaches += aBreaches;
+        _rates.addValue((double) aBreaches / aRequests);
+    }
+
+    boolean isClearlyBreaching() {
+        if ((_breaches == 0) || (_rates.getN() < MIN_REPLICAS))
+            return false;
+
+        double myHalfWidth = new TDistribution(_rates.getN() - 1).inverseCumulativeProbability(
+                (1 + _confidence) / 2) * _rates.getStandardDeviation() / Math.sqrt(_rates.getN());
+
+        return _rates.getMean() - myHalfWidth > 0;
+    }
+
+    boolean isClearlyBreachFree() {
+        return (_breaches == 0) && (_rates.getN() >= _clearReplicas);
+    }
+
+    boolean isDecided() {
+        return isClearlyBreaching() || isClearlyBreachFree();
+    }
+
+    /**
+     * @return the mean number of breaches per replica so far
+     */
+    double meanBreaches() {
+        return _rates.getN() == 0 ? 0 : (double) _breaches / _rates.getN();
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+/**
+ * A node's fixed window throttle state for every tenant it has seen. Open-addressed (linear probing) on tenant id
+ * with each tenant's window, count and breaches held in parallel primitive arrays, so there are no per-tenant
+ * objects. Grows to keep the load at one half or less, tenants are never removed.
+ */
+class TenantCounters {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_SLOTS = 16;
+
+    private final int _max;
+    private final long _scope;
+
+    private int[] _tenants;
+    private long[] _windows;
+    private int[] _counts;
+    private long[] _breaches;
+    private int _mask;
+    private int _size = 0;
+
+    TenantCounters(ThrottlePolicy aPolicy) {
+        _max = aPolicy.getMax();
+        _scope = aPolicy.getScopeMillis();
+
+        allocate(INITIAL_SLOTS);
+    }
+
+    private void allocate(int aSlots) {
+        _tenants = new int[aSlots];
+        _windows = new long[aSlots];
+        _counts = new int[aSlots];
+        _breaches = new long[aSlots];
+        _mask = aSlots - 1;
+
+        Arrays.fill(_tenants, EMPTY);
+    }
+
+    /**
+     * @param aTenant must be >= 0
+     * @return <code>true</code> if the tenant's request arriving at <code>aCurrentTime</code> exceeds its limit
+     */
+    boolean breaches(int aTenant, long aCurrentTime) {
+        int mySlot = slotFor(aTenant);
+        long myWindow = aCurrentTime / _scope;
+
+        if (_windows[mySlot] != myWindow) {
+            _windows[mySlot] = myWindow;
+            _counts[mySlot] = 0;
+        }
+
+        if (_counts[mySlot] >= _max) {
+            ++_breaches[mySlot];
+            return true;
+        }
+
+        ++_counts[mySlot];
+        return false;
+    }
+
+    /**
+     * @return the number of tenants seen
+     */
+    int size() {
+        return _size;
+    }
+
+    long getBreaches(int aTenant) {
+        int mySlot = hash(aTenant) & _mask;
+
+        while (_tenants[mySlot] != EMPTY) {
+            if (_tenants[mySlot] == aTenant)
+                return _breaches[mySlot];
+
+            mySlot = (mySlot + 1) & _mask;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Add each tenant's breaches to its entry in <code>aTotals</code>, indexed by tenant id
+     */
+    void addBreaches(long[] aTotals) {
+        for (int i = 0; i < _tenants.length; i++)
+            if ((_tenants[i] != EMPTY) && (_breaches[i] != 0))
+                aTotals[_tenants[i]] += _breaches[i];
+    }
+
+    private int slotFor(int aTenant) {
+        int mySlot = hash(aTenant) & _mask;
+
+        while (_tenants[mySlot] != EMPTY) {
+            if (_tenants[mySlot] == aTenant)
+                return mySlot;
+
+            mySlot = (mySlot + 1) & _mask;
+        }
+
+        if ((_size + 1) * 2 > _tenants.length) {
+            grow();
+            return slotFor(aTenant);
+        }
+
+        _tenants[mySlot] = aTenant;
+        _windows[mySlot] = -1;
+        ++_size;
+
+        return mySlot;
+    }
+
+    private void grow() {
+        int[] myTenants = _tenants;
+        long[] myWindows = _windows;
+        int[] myCounts = _counts;
+        long[] myBreaches = _breaches;
+
+        allocate(myTenants.length * 2);
+
+        for (int i = 0; i < myTenants.length; i++) {
+            if (myTenants[i] == EMPTY)
+                continue;
+
+            int mySlot = hash(myTenants[i]) & _mask;
+
+            while (_tenants[mySlot] != EMPTY)
+                mySlot = (mySlot + 1) & _mask;
+
+            _tenants[mySlot] = myTenants[i];
+            _windows[mySlot] = myWindows[i];
+            _counts[mySlot] = myCounts[i];
+            _breaches[mySlot] = myBreaches[i];
+        }
+    }
+
+    private static int hash(int aKey) {
+        int myHash = aKey * 0x9E3779B9;
+
+        return myHash ^ (myHash >>> 16);
+    }
+}
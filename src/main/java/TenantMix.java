@@ -0,0 +1,80 @@
+import org.apache.commons.math3.random.RandomGenerator;
+
+import java.util.Arrays;
+
+/**
+ * Labels requests with the tenant that sent them. A share of the traffic comes from tenants, split between them by a
+ * Zipf law (tenant 0 the busiest), and the remainder is general background load belonging to no tenant, so together
+ * they make up the configured request rate. The tenant distribution is computed once and shared by every
+ * simulation, each drawing from it with its own generator.
+ */
+class TenantMix {
+    static final int NO_TENANT = -1;
+
+    private final double[] _cumulative;
+    private final double _tenantShare;
+    private final RandomGenerator _rng;
+
+    /**
+     * @param aSkew the Zipf exponent, 0 splits traffic evenly between tenants
+     * @param aTenantShare fraction of requests from tenants, between 0 and 1
+     */
+    TenantMix(int aTenants, double aSkew, double aTenantShare) {
+        if (aTenants <= 0)
+            throw new IllegalArgumentException("Tenants must be > 0");
+
+        if ((aTenantShare < 0) || (aTenantShare > 1))
+            throw new IllegalArgumentException("Tenant share must be between 0 and 1");
+
+        _cumulative = new double[aTenants];
+        _tenantShare = aTenantShare;
+        _rng = null;
+
+        double myTotal = 0;
+
+        for (int i = 0; i < aTenants; i++) {
+            myTotal += 1 / Math.pow(i + 1, aSkew);
+            _cumulative[i] = myTotal;
+        }
+
+        for (int i = 0; i < aTenants; i++)
+            _cumulative[i] /= myTotal;
+    }
+
+    private TenantMix(TenantMix aPrototype, RandomGenerator aRng) {
+        _cumulative = aPrototype._cumulative;
+        _tenantShare = aPrototype._tenantShare;
+        _rng = aRng;
+    }
+
+    /**
+     * @return a mix drawing from this one's distribution with the given generator
+     */
+    TenantMix withGenerator(RandomGenerator aRng) {
+        return new TenantMix(this, aRng);
+    }
+
+    int size() {
+        return _cumulative.length;
+    }
+
+    /**
+     * Fill the first <code>aCount</code> entries of <code>aTenants</code> with tenant ids or {@link #NO_TENANT}
+     */
+    void fill(int[] aTenants, int aCount) {
+        for (int i = 0; i < aCount; i++) {
+            double myDraw = _rng.nextDouble();
+
+            // Reuse the draw so one random number labels each request
+            //
+            if (myDraw >= _tenantShare) {
+                aTenants[i] = NO_TENANT;
+                continue;
+            }
+
+            int myTenant = Arrays.binarySearch(_cumulative, myDraw / _tenantShare);
+
+            aTenants[i] = Math.min((myTenant < 0) ? -(myTenant + 1) : myTenant + 1, _cumulative.length - 1);
+        }
+    }
+}
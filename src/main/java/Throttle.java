@@ -0,0 +1,16 @@
+/**
+ * A node's throttle state for one {@link ThrottlePolicy}. Requests are offered in time order, one at a time, and the
+ * state kept is bounded whatever the request rate. Requests that breach aren't counted against the limit, as if the
+ * throttle had rejected them.
+ */
+interface Throttle {
+    /**
+     * @return <code>true</code> if a request arriving at <code>aCurrentTime</code> exceeds the limit
+     */
+    boolean breaches(long aCurrentTime);
+
+    /**
+     * @return requests counted against the limit as of the last request offered
+     */
+    int inScope();
+}
@@ -0,0 +1,39 @@
+/**
+ * The ways a {@link ThrottlePolicy} can be enforced, selectable from the command line by name. Each allows the
+ * policy's maximum requests per scope but they differ in how windows are drawn and so in how bursts are treated.
+ */
+public enum ThrottleAlgorithm {
+    // Count per aligned window of scope, reset as each window starts
+    //
+    FIXED_WINDOW {
+        Throttle create(ThrottlePolicy aPolicy) {
+            return new FixedWindowThrottle(aPolicy);
+        }
+    },
+
+    // Exact count over the scope preceding each request, from the times of those admitted
+    //
+    SLIDING_LOG {
+        Throttle create(ThrottlePolicy aPolicy) {
+            return new SlidingLogThrottle(aPolicy);
+        }
+    },
+
+    // Approximate sliding count, weighting the previous fixed window by how much of it still overlaps the scope
+    //
+    SLIDING_WINDOW {
+        Throttle create(ThrottlePolicy aPolicy) {
+            return new SlidingWindowThrottle(aPolicy);
+        }
+    },
+
+    // Bucket of maximum tokens refilled continuously at maximum per scope, a request taking one
+    //
+    TOKEN_BUCKET {
+        Throttle create(ThrottlePolicy aPolicy) {
+            return new TokenBucketThrottle(aPolicy);
+        }
+    };
+
+    abstract Throttle create(ThrottlePolicy aPolicy);
+}
@@ -1,10 +1,16 @@
 class ThrottlePolicy {
     private final int _max;
     private final long _scopeMillis;
+    private final ThrottleAlgorithm _algorithm;
 
     ThrottlePolicy(int aMax, long aScopeMillis) {
+        this(aMax, aScopeMillis, ThrottleAlgorithm.FIXED_WINDOW);
+    }
+
+    ThrottlePolicy(int aMax, long aScopeMillis, ThrottleAlgorithm anAlgorithm) {
         _max = aMax;
         _scopeMillis = aScopeMillis;
+        _algorithm = anAlgorithm;
     }
 
     int getMax() {
@@ -15,10 +21,14 @@ class ThrottlePolicy {
         return _scopeMillis;
     }
 
-    boolean outOfScope(Request aRequest, long aCurrentTime) {
-        // If a current time is more than throttle scope ahead of request start-time...
-        // List is oldest to newest so first that hasn't expired means there will be no more
-        //
-        return ((aCurrentTime / getScopeMillis()) > (aRequest.getStartTime() / getScopeMillis()));
+    ThrottleAlgorithm getAlgorithm() {
+        return _algorithm;
+    }
+
+    /**
+     * @return fresh state for enforcing this policy on one node
+     */
+    Throttle newThrottle() {
+        return _algorithm.create(this);
     }
 }
@@ -0,0 +1,19 @@
+/**
+ * How {@link MonteCarloLB} looks for the lowest breach-free throttle limit, selectable from the command line by name.
+ */
+public enum ThrottleSearch {
+    // Start at the base limit and climb by an amount estimated from the number of breaches, running every
+    // simulation to completion at each setting
+    //
+    STEP,
+
+    // Probe upwards (or downwards) in doubling steps to bracket the answer then bisect. Every setting replays the
+    // same seeds and abandons its remaining simulations at the first breach.
+    //
+    BISECT,
+
+    // Run each simulation once without a limit, recording how many requests every node saw in each throttle window,
+    // then work out breaches for all limits from those counts. Only valid because routing ignores the limit.
+    //
+    SINGLE_PASS
+}
@@ -1,7 +1,7 @@
 import org.apache.commons.math3.random.RandomGenerator;
-import sample.Bucket;
+import sample.IntBucket;
 
-class TimeCeilingBucket implements Bucket<Integer> {
+class TimeCeilingBucket implements IntBucket {
     private final int _baseTime;
     private final double _reqsPercentage;
     private final int _reqCount;
@@ -20,7 +20,7 @@ class TimeCeilingBucket implements Bucket<Integer> {
     }
 
     @Override
-    public Integer draw(RandomGenerator anRNG) {
+    public int drawInt(RandomGenerator anRNG) {
         if (_remainingRequests == 0)
             throw new IllegalStateException();
         else
@@ -35,7 +35,7 @@ class TimeCeilingBucket implements Bucket<Integer> {
     }
 
     @Override
-    public Bucket<Integer> copy() {
+    public IntBucket copy() {
         return new TimeCeilingBucket(_baseTime, _reqsPercentage,
                 _reqCount, _remainingRequests);
     }
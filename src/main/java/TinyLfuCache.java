@@ -0,0 +1,92 @@
+/**
+ * W-TinyLFU (Einziger et al.): a small LRU window (1% of capacity) in front of a segmented LRU main area split
+ * into probation (20%) and protected (80%). A key leaving the window only displaces main's next victim if a
+ * {@link FrequencySketch} says it's been requested more often, so a long tail of rarely seen keys can't flush
+ * popular ones.
+ */
+class TinyLfuCache implements KeyCache {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final int _windowCapacity;
+    private final int _mainCapacity;
+    private final int _protectedCapacity;
+    private final IntEntries _entries;
+    private final IntLinkedLists _lists;
+    private final FrequencySketch _sketch;
+
+    TinyLfuCache(int aCapacity) {
+        _windowCapacity = Math.max(1, aCapacity / 100);
+        _mainCapacity = Math.max(0, aCapacity - _windowCapacity);
+        _protectedCapacity = (int) (_mainCapacity * 0.8);
+
+        // Window overflows by one before its candidate is dealt with
+        //
+        _entries = new IntEntries(aCapacity + 1);
+        _lists = new IntLinkedLists(aCapacity + 1, 3);
+        _sketch = new FrequencySketch(aCapacity);
+    }
+
+    static double bytesPerEntry(int aCapacity) {
+        return IntEntries.bytesPerEntry(aCapacity + 1) + IntLinkedLists.bytesPerEntry() +
+                FrequencySketch.bytesPerEntry();
+    }
+
+    @Override
+    public synchronized boolean access(int aKey) {
+        int myEntry = _entries.find(aKey);
+
+        _sketch.increment(aKey);
+
+        if (myEntry != IntEntries.NONE) {
+            switch (_lists.listOf(myEntry)) {
+                case PROBATION :
+                    _lists.moveToFront(PROTECTED, myEntry);
+
+                    if (_lists.size(PROTECTED) > _protectedCapacity)
+                        _lists.moveToFront(PROBATION, _lists.tail(PROTECTED));
+
+                    break;
+
+                default :
+                    _lists.moveToFront(_lists.listOf(myEntry), myEntry);
+                    break;
+            }
+
+            return true;
+        }
+
+        _lists.pushFront(WINDOW, _entries.add(aKey));
+
+        if (_lists.size(WINDOW) > _windowCapacity)
+            admit(_lists.tail(WINDOW));
+
+        return false;
+    }
+
+    private void admit(int aCandidate) {
+        if (_lists.size(PROBATION) + _lists.size(PROTECTED) < _mainCapacity) {
+            _lists.moveToFront(PROBATION, aCandidate);
+            return;
+        }
+
+        int myVictim = _lists.tail(PROBATION);
+
+        if (myVictim == IntLinkedLists.NONE)
+            myVictim = _lists.tail(PROTECTED);
+
+        if ((myVictim != IntLinkedLists.NONE) &&
+                (_sketch.frequency(_entries.keyOf(aCandidate)) > _sketch.frequency(_entries.keyOf(myVictim)))) {
+            discard(myVictim);
+            _lists.moveToFront(PROBATION, aCandidate);
+        } else {
+            discard(aCandidate);
+        }
+    }
+
+    private void discard(int anEntry) {
+        _lists.unlink(anEntry);
+        _entries.remove(anEntry);
+    }
+}
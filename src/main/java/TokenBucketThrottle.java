@@ -0,0 +1,38 @@
+/**
+ * A bucket holding up to the maximum tokens, starting full and refilled at the maximum per scope. Each admitted
+ * request takes a token, a request finding less than one breaches.
+ */
+class TokenBucketThrottle implements Throttle {
+    private final double _capacity;
+    private final double _tokensPerTick;
+    private double _tokens;
+    private long _lastRefill = Long.MIN_VALUE;
+
+    TokenBucketThrottle(ThrottlePolicy aPolicy) {
+        _capacity = aPolicy.getMax();
+        _tokensPerTick = _capacity / aPolicy.getScopeMillis();
+        _tokens = _capacity;
+    }
+
+    @Override
+    public boolean breaches(long aCurrentTime) {
+        if (_lastRefill != Long.MIN_VALUE)
+            _tokens = Math.min(_capacity, _tokens + (aCurrentTime - _lastRefill) * _tokensPerTick);
+
+        _lastRefill = aCurrentTime;
+
+        if (_tokens < 1)
+            return true;
+
+        --_tokens;
+        return false;
+    }
+
+    /**
+     * @return tokens taken and not yet replaced
+     */
+    @Override
+    public int inScope() {
+        return (int) (_capacity - _tokens);
+    }
+}
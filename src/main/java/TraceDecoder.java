@@ -0,0 +1,165 @@
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Renders a trace written by {@link TraceSink} as the debug output {@link MonteCarloLB} used to print: a "B" or "."
+ * per request ("T" for one rejected for its tenant) and, with <code>-b</code>, the breaches per node. A first line
+ * gives the limit, scope and the ticks per millisecond that times are in.
+ *
+ *     java -classpath $(cat cp.txt):target/classes TraceDecoder -btrue traces/sim-00000-limit-25.trace
+ */
+public class TraceDecoder {
+    interface Listener {
+        /**
+         * @param aScopeTicks the throttle scope, in the same ticks as request times
+         */
+        void header(int aLimit, long aScopeTicks, int aTicksPerMilli, int aNumNodes);
+
+        /**
+         * @param anOutcome one of {@link TraceSink#ADMITTED}, {@link TraceSink#BREACHED} or
+         *                  {@link TraceSink#TENANT_REJECTED}
+         */
+        void record(long aTime, int aNode, int aConnections, int anInScope, byte anOutcome);
+    }
+
+    private static class Configuration {
+        private final OptionParser myOp = new OptionParser();
+
+        final OptionSpec<Boolean> _breachesParam = myOp.accepts("b").withOptionalArg().ofType(Boolean.class).defaultsTo(false);
+        final OptionSpec<String> _files = myOp.nonOptions().ofType(String.class);
+
+        OptionSet produce(String[] anArgs) {
+            return myOp.parse(anArgs);
+        }
+    }
+
+    public static void main(String[] anArgs) throws IOException {
+        Configuration myConfig = new Configuration();
+        OptionSet myOptions = myConfig.produce(anArgs);
+        PrintStream myOut = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out),
+                1 << 16));
+
+        for (String myFile : myConfig._files.values(myOptions))
+            render(Paths.get(myFile), myOut, myConfig._breachesParam.value(myOptions));
+
+        myOut.flush();
+    }
+
+    /**
+     * Print the trace's settings, the requests as "B" (breach), "T" (tenant rejected) or "." and, if asked, then each
+     * node's breaches
+     */
+    static void render(Path aTrace, PrintStream anOut, boolean isBreaches) throws IOException {
+        Renderer myRenderer = new Renderer(anOut, isBreaches);
+
+        decode(aTrace, myRenderer);
+        myRenderer.finish();
+    }
+
+    private static class Renderer implements Listener {
+        private final PrintStream _out;
+        private final boolean _breaches;
+        private int _limit;
+        private StringBuilder[] _byNode;
+
+        Renderer(PrintStream anOut, boolean isBreaches) {
+            _out = anOut;
+            _breaches = isBreaches;
+        }
+
+        @Override
+        public void header(int aLimit, long aScopeTicks, int aTicksPerMilli, int aNumNodes) {
+            _limit = aLimit;
+            _byNode = new StringBuilder[aNumNodes];
+
+            _out.println("Limit: " + aLimit + " per " + aScopeTicks + " ticks, " + aTicksPerMilli +
+                    " ticks per ms, " + aNumNodes + " nodes");
+        }
+
+        @Override
+        public void record(long aTime, int aNode, int aConnections, int anInScope, byte anOutcome) {
+            boolean isBreach = (anOutcome == TraceSink.BREACHED);
+
+            _out.print(isBreach ? 'B' : (anOutcome == TraceSink.TENANT_REJECTED) ? 'T' : '.');
+
+            if (isBreach && _breaches) {
+                if (_byNode[aNode] == null)
+                    _byNode[aNode] = new StringBuilder();
+
+                _byNode[aNode].append(Node.Breach.describe(aTime, aConnections, anInScope, _limit));
+            }
+        }
+
+        void finish() {
+            _out.println();
+
+            if (_breaches) {
+                for (int i = 0; i < _byNode.length; i++) {
+                    _out.println("Node Id: " + i);
+
+                    if (_byNode[i] != null)
+                        _out.print(_byNode[i]);
+
+                    _out.println();
+                }
+            }
+        }
+    }
+
+    static void decode(Path aTrace, Listener aListener) throws IOException {
+        try (FileChannel myChannel = FileChannel.open(aTrace, StandardOpenOption.READ)) {
+            ByteBuffer myBuffer = ByteBuffer.allocateDirect(1 << 20);
+
+            readFully(myChannel, myBuffer, TraceSink.HEADER_BYTES);
+
+            if (myBuffer.getInt() != TraceSink.MAGIC)
+                throw new IOException("Not a trace: " + aTrace);
+
+            short myVersion = myBuffer.getShort();
+
+            if (myVersion != TraceSink.VERSION)
+                throw new IOException("Unsupported trace version " + myVersion + ": " + aTrace);
+
+            aListener.header(myBuffer.getInt(), myBuffer.getLong(), myBuffer.getInt(), myBuffer.getInt());
+
+            while (true) {
+                while (myBuffer.remaining() >= TraceSink.RECORD_BYTES)
+                    aListener.record(myBuffer.getLong(), myBuffer.getInt(), myBuffer.getInt(), myBuffer.getInt(),
+                            myBuffer.get());
+
+                myBuffer.compact();
+
+                if (myChannel.read(myBuffer) < 0) {
+                    myBuffer.flip();
+
+                    if (myBuffer.hasRemaining())
+                        throw new IOException("Truncated trace: " + aTrace);
+
+                    return;
+                }
+
+                myBuffer.flip();
+            }
+        }
+    }
+
+    private static void readFully(FileChannel aChannel, ByteBuffer aBuffer, int aBytes) throws IOException {
+        while (aBuffer.position() < aBytes)
+            if (aChannel.read(aBuffer) < 0)
+                throw new IOException("Truncated trace header");
+
+        aBuffer.flip();
+    }
+}
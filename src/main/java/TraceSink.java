@@ -0,0 +1,80 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a binary record of every request an {@link LB} allocates to a file, one per simulation. Records are
+ * gathered in a direct buffer and handed to a {@link FileChannel} a megabyte at a time so tracing can stay on for
+ * full size runs. {@link TraceDecoder} renders a trace back into the textual debug output.
+ *
+ * The file is a header (magic, version, limit, scope, ticks per millisecond, node count) followed by records of time
+ * (long), node (int), connections (int), requests in throttle scope (int) and outcome (byte), all big-endian. Times
+ * and the scope are in ticks, milliseconds unless the arrival process works at a finer resolution. A request
+ * rejected for breaching its tenant's limit has its own outcome, connections and scope being as the node left them.
+ */
+class TraceSink implements Closeable {
+    static final int MAGIC = 0x5453494D;
+    static final short VERSION = 3;
+    static final int HEADER_BYTES = 4 + 2 + 4 + 8 + 4 + 4;
+    static final int RECORD_BYTES = 8 + 4 + 4 + 4 + 1;
+
+    static final byte ADMITTED = 0;
+    static final byte BREACHED = 1;
+    static final byte TENANT_REJECTED = 2;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel _channel;
+    private final ByteBuffer _buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    TraceSink(Path aFile, ThrottlePolicy aPolicy, int aNumNodes) throws IOException {
+        this(aFile, aPolicy, 1, aNumNodes);
+    }
+
+    /**
+     * @param aTicksPerMilli the resolution of request times and of the policy's scope
+     */
+    TraceSink(Path aFile, ThrottlePolicy aPolicy, int aTicksPerMilli, int aNumNodes) throws IOException {
+        _channel = FileChannel.open(aFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        _buffer.putInt(MAGIC).putShort(VERSION).putInt(aPolicy.getMax()).putLong(aPolicy.getScopeMillis())
+                .putInt(aTicksPerMilli).putInt(aNumNodes);
+    }
+
+    /**
+     * @param anOutcome one of {@link #ADMITTED}, {@link #BREACHED} or {@link #TENANT_REJECTED}
+     */
+    void record(long aTime, int aNode, int aConnections, int anInScope, byte anOutcome) {
+        if (_buffer.remaining() < RECORD_BYTES)
+            flush();
+
+        _buffer.putLong(aTime).putInt(aNode).putInt(aConnections).putInt(anInScope).put(anOutcome);
+    }
+
+    private void flush() {
+        _buffer.flip();
+
+        try {
+            while (_buffer.hasRemaining())
+                _channel.write(_buffer);
+        } catch (IOException anE) {
+            throw new UncheckedIOException("Couldn't write trace", anE);
+        }
+
+        _buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            _channel.close();
+        }
+    }
+}
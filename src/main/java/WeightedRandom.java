@@ -0,0 +1,38 @@
+import sample.AliasTable;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Picks a node at random in proportion to its weight, blind to load. Uses an {@link AliasTable} so a choice costs
+ * the same whatever the number of nodes or spread of weights.
+ */
+class WeightedRandom implements NodeSelector {
+    private final List<? extends Connections> _nodes;
+    private final SplittableRandom _rng;
+    private final AliasTable _table;
+
+    WeightedRandom(List<? extends Connections> aNodes, Selection aSelection, SplittableRandom aRng) {
+        double[] myWeights = new double[aNodes.size()];
+
+        for (int i = 0; i < myWeights.length; i++)
+            myWeights[i] = aSelection.weight(i);
+
+        _nodes = aNodes;
+        _rng = aRng;
+        _table = new AliasTable(myWeights);
+    }
+
+    @Override
+    public int select(long aCurrentTime) {
+        int myChoice = _table.choose(_rng);
+
+        _nodes.get(myChoice).currentConnections(aCurrentTime);
+
+        return myChoice;
+    }
+
+    @Override
+    public void admitted(int anIndex, int aDuration, long aCurrentTime) {
+    }
+}
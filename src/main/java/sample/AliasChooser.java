@@ -0,0 +1,42 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Sampling with replacement: buckets are chosen in proportion to the samples they started with, using an
+ * {@link AliasTable} for O(1) choice. A bucket that runs dry is replenished so the proportions never drift. Only as many
+ * samples as the buckets originally held are produced.
+ */
+class AliasChooser implements BucketChooser {
+    private final RandomGenerator _rng;
+    private final AliasTable _table;
+    private long _remaining;
+
+    AliasChooser(int[] aCounts, RandomGenerator anRNG) {
+        long myTotal = 0;
+
+        for (int myCount : aCounts)
+            myTotal += myCount;
+
+        _rng = anRNG;
+        _table = AliasTable.of(aCounts);
+        _remaining = myTotal;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return _remaining != 0;
+    }
+
+    @Override
+    public int choose() {
+        --_remaining;
+
+        return _table.choose(_rng);
+    }
+
+    @Override
+    public boolean drawn(int aRemaining) {
+        return aRemaining == 0;
+    }
+}
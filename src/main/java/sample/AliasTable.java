@@ -0,0 +1,99 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Vose's alias method: chooses an index in proportion to its weight with one random column and one random fraction,
+ * whatever the number of weights or their spread. The table is immutable so can be shared between threads each
+ * choosing with its own generator.
+ */
+public class AliasTable {
+    private final double[] _probabilities;
+    private final int[] _aliases;
+
+    /**
+     * @param aWeights non-negative relative weights, if they're all zero nothing is ever likely and choices are
+     *                 meaningless
+     */
+    public AliasTable(double[] aWeights) {
+        int myNum = aWeights.length;
+
+        _probabilities = new double[myNum];
+        _aliases = new int[myNum];
+
+        double myTotal = 0;
+
+        for (double myWeight : aWeights)
+            myTotal += myWeight;
+
+        if (myTotal == 0)
+            return;
+
+        // Scale each weight so the average is 1 then pair off those below with those above
+        //
+        double[] myScaled = new double[myNum];
+        int[] mySmall = new int[myNum];
+        int[] myLarge = new int[myNum];
+        int mySmallCount = 0;
+        int myLargeCount = 0;
+
+        for (int i = 0; i < myNum; i++) {
+            myScaled[i] = aWeights[i] * myNum / myTotal;
+
+            if (myScaled[i] < 1.0)
+                mySmall[mySmallCount++] = i;
+            else
+                myLarge[myLargeCount++] = i;
+        }
+
+        while ((mySmallCount != 0) && (myLargeCount != 0)) {
+            int myLess = mySmall[--mySmallCount];
+            int myMore = myLarge[--myLargeCount];
+
+            _probabilities[myLess] = myScaled[myLess];
+            _aliases[myLess] = myMore;
+
+            myScaled[myMore] = (myScaled[myMore] + myScaled[myLess]) - 1.0;
+
+            if (myScaled[myMore] < 1.0)
+                mySmall[mySmallCount++] = myMore;
+            else
+                myLarge[myLargeCount++] = myMore;
+        }
+
+        // Whatever's left is 1 give or take rounding error
+        //
+        while (myLargeCount != 0)
+            _probabilities[myLarge[--myLargeCount]] = 1.0;
+
+        while (mySmallCount != 0)
+            _probabilities[mySmall[--mySmallCount]] = 1.0;
+    }
+
+    public static AliasTable of(int[] aCounts) {
+        double[] myWeights = new double[aCounts.length];
+
+        for (int i = 0; i < aCounts.length; i++)
+            myWeights[i] = aCounts[i];
+
+        return new AliasTable(myWeights);
+    }
+
+    public int size() {
+        return _probabilities.length;
+    }
+
+    public int choose(RandomGenerator anRNG) {
+        int myColumn = anRNG.nextInt(_probabilities.length);
+
+        return (anRNG.nextDouble() < _probabilities[myColumn]) ? myColumn : _aliases[myColumn];
+    }
+
+    public int choose(SplittableRandom anRNG) {
+        int myColumn = anRNG.nextInt(_probabilities.length);
+
+        return (anRNG.nextDouble() < _probabilities[myColumn]) ? myColumn : _aliases[myColumn];
+    }
+}
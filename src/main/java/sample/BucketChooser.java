@@ -0,0 +1,20 @@
+package sample;
+
+/**
+ * Decides which bucket a {@link BucketConsumer} draws from next, given only how many samples each bucket holds.
+ */
+interface BucketChooser {
+    boolean hasNext();
+
+    /**
+     * @return index of the bucket to draw from
+     */
+    int choose();
+
+    /**
+     * Report the outcome of drawing from the bucket last chosen.
+     *
+     * @return <code>true</code> if that bucket should be replenished from its template
+     */
+    boolean drawn(int aRemaining);
+}
@@ -6,31 +6,42 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BucketConsumer<T> {
+    private final Bucket<T>[] _templates;
     private final List<Bucket<T>> _buckets = new ArrayList<>();
+    private final BucketChooser _chooser;
     private final RandomGenerator _rng;
 
     public BucketConsumer(Bucket<T>[] aTemplateBuckets, RandomGenerator anRNG) {
-        for (Bucket<T> myB : aTemplateBuckets) {
-            Bucket<T> myBucket = myB.copy();
+        this(aTemplateBuckets, anRNG, Sampling.UNIFORM);
+    }
+
+    public BucketConsumer(Bucket<T>[] aTemplateBuckets, RandomGenerator anRNG, Sampling aSampling) {
+        int[] myCounts = new int[aTemplateBuckets.length];
+
+        for (int i = 0; i < aTemplateBuckets.length; i++) {
+            Bucket<T> myBucket = aTemplateBuckets[i].copy();
 
             _buckets.add(myBucket);
+            myCounts[i] = myBucket.numRemaining();
         }
 
+        _templates = aTemplateBuckets;
+        _chooser = aSampling.create(myCounts, anRNG);
         _rng = anRNG;
     }
 
     public T nextSample() {
-        int myChoice = _rng.nextInt(_buckets.size());
+        int myChoice = _chooser.choose();
         Bucket<T> myBucket = _buckets.get(myChoice);
         T mySample = myBucket.draw(_rng);
 
-        if (myBucket.numRemaining() == 0)
-            _buckets.remove(myChoice);
+        if (_chooser.drawn(myBucket.numRemaining()))
+            _buckets.set(myChoice, _templates[myChoice].copy());
 
         return mySample;
     }
 
     public boolean claim() {
-        return _buckets.size() != 0;
+        return _chooser.hasNext();
     }
 }
@@ -0,0 +1,78 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Sampling without replacement: a bucket is chosen in proportion to the samples it has left, as if every
+ * sample from every bucket had been thrown in one pot. Remaining counts are held in a Fenwick tree so choosing and
+ * updating are both O(log n).
+ */
+class FenwickChooser implements BucketChooser {
+    private final RandomGenerator _rng;
+    private final int[] _counts;
+    private final int[] _tree;
+    private final int _topStep;
+    private int _total;
+    private int _last = -1;
+
+    FenwickChooser(int[] aCounts, RandomGenerator anRNG) {
+        _rng = anRNG;
+        _counts = aCounts.clone();
+        _tree = new int[aCounts.length + 1];
+        _topStep = Integer.highestOneBit(Math.max(aCounts.length, 1));
+
+        long myTotal = 0;
+
+        for (int i = 0; i < aCounts.length; i++) {
+            myTotal += aCounts[i];
+            add(i, aCounts[i]);
+        }
+
+        if (myTotal > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Total samples must be <= " + Integer.MAX_VALUE);
+
+        _total = (int) myTotal;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return _total != 0;
+    }
+
+    @Override
+    public int choose() {
+        int myTarget = _rng.nextInt(_total);
+        int myPos = 0;
+
+        // Descend the tree for the first bucket whose cumulative count exceeds the target
+        //
+        for (int myStep = _topStep; myStep != 0; myStep >>>= 1) {
+            int myNext = myPos + myStep;
+
+            if ((myNext < _tree.length) && (_tree[myNext] <= myTarget)) {
+                myPos = myNext;
+                myTarget -= _tree[myNext];
+            }
+        }
+
+        _last = myPos;
+
+        return myPos;
+    }
+
+    @Override
+    public boolean drawn(int aRemaining) {
+        int myDelta = aRemaining - _counts[_last];
+
+        _counts[_last] = aRemaining;
+        _total += myDelta;
+        add(_last, myDelta);
+
+        return false;
+    }
+
+    private void add(int anIndex, int aDelta) {
+        for (int i = anIndex + 1; i < _tree.length; i += i & -i)
+            _tree[i] += aDelta;
+    }
+}
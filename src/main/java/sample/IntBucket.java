@@ -0,0 +1,18 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * A {@link Bucket} of primitive ints, drawing via {@link #drawInt(RandomGenerator)} avoids boxing.
+ */
+public interface IntBucket extends Bucket<Integer> {
+    int drawInt(RandomGenerator anRNG);
+
+    @Override
+    default Integer draw(RandomGenerator anRNG) {
+        return drawInt(anRNG);
+    }
+
+    @Override
+    IntBucket copy();
+}
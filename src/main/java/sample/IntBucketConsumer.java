@@ -0,0 +1,69 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Counterpart of {@link BucketConsumer} for {@link IntBucket}s, producing samples without boxing. For a given
+ * generator and {@link Sampling} it yields the same sequence as {@link BucketConsumer}.
+ */
+public class IntBucketConsumer {
+    private final IntBucket[] _templates;
+    private final IntBucket[] _buckets;
+    private final BucketChooser _chooser;
+    private final RandomGenerator _rng;
+
+    public IntBucketConsumer(IntBucket[] aTemplateBuckets, RandomGenerator anRNG) {
+        this(aTemplateBuckets, anRNG, Sampling.UNIFORM);
+    }
+
+    public IntBucketConsumer(IntBucket[] aTemplateBuckets, RandomGenerator anRNG, Sampling aSampling) {
+        int[] myCounts = new int[aTemplateBuckets.length];
+
+        _buckets = new IntBucket[aTemplateBuckets.length];
+
+        for (int i = 0; i < aTemplateBuckets.length; i++) {
+            _buckets[i] = aTemplateBuckets[i].copy();
+            myCounts[i] = _buckets[i].numRemaining();
+        }
+
+        _templates = aTemplateBuckets;
+        _chooser = aSampling.create(myCounts, anRNG);
+        _rng = anRNG;
+    }
+
+    public int nextSampleInt() {
+        int myChoice = _chooser.choose();
+        IntBucket myBucket = _buckets[myChoice];
+        int mySample = myBucket.drawInt(_rng);
+
+        if (_chooser.drawn(myBucket.numRemaining()))
+            _buckets[myChoice] = _templates[myChoice].copy();
+
+        return mySample;
+    }
+
+    /**
+     * Fill the array with consecutive samples, exactly as repeated calls to {@link #nextSampleInt()} would.
+     *
+     * @return the number of samples written which is less than the array's length only once samples run out
+     */
+    public int fill(int[] aSamples) {
+        int myCount = 0;
+
+        while ((myCount < aSamples.length) && (_chooser.hasNext())) {
+            int myChoice = _chooser.choose();
+            IntBucket myBucket = _buckets[myChoice];
+
+            aSamples[myCount++] = myBucket.drawInt(_rng);
+
+            if (_chooser.drawn(myBucket.numRemaining()))
+                _buckets[myChoice] = _templates[myChoice].copy();
+        }
+
+        return myCount;
+    }
+
+    public boolean claim() {
+        return _chooser.hasNext();
+    }
+}
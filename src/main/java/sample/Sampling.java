@@ -0,0 +1,34 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * How a {@link BucketConsumer} picks the bucket for each sample.
+ */
+public enum Sampling {
+    // Every non-empty bucket is equally likely
+    //
+    UNIFORM {
+        BucketChooser create(int[] aCounts, RandomGenerator anRNG) {
+            return new UniformChooser(aCounts, anRNG);
+        }
+    },
+
+    // Buckets are likely in proportion to the samples they have left
+    //
+    PROPORTIONAL {
+        BucketChooser create(int[] aCounts, RandomGenerator anRNG) {
+            return new FenwickChooser(aCounts, anRNG);
+        }
+    },
+
+    // Buckets are likely in proportion to the samples they started with
+    //
+    WITH_REPLACEMENT {
+        BucketChooser create(int[] aCounts, RandomGenerator anRNG) {
+            return new AliasChooser(aCounts, anRNG);
+        }
+    };
+
+    abstract BucketChooser create(int[] aCounts, RandomGenerator anRNG);
+}
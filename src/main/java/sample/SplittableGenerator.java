@@ -0,0 +1,43 @@
+package sample;
+
+import org.apache.commons.math3.random.AbstractRandomGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Presents a {@link SplittableRandom} as a {@link org.apache.commons.math3.random.RandomGenerator} so a task given a
+ * split of a sim's generator can draw from buckets without seeding a generator of its own. Draws come straight from
+ * the underlying generator which is only ever seeded by splitting.
+ */
+public class SplittableGenerator extends AbstractRandomGenerator {
+    private final SplittableRandom _rng;
+
+    public SplittableGenerator(SplittableRandom anRNG) {
+        _rng = anRNG;
+    }
+
+    @Override
+    public void setSeed(long aSeed) {
+        throw new UnsupportedOperationException("Seeded by splitting the SplittableRandom it wraps");
+    }
+
+    @Override
+    public double nextDouble() {
+        return _rng.nextDouble();
+    }
+
+    @Override
+    public int nextInt() {
+        return _rng.nextInt();
+    }
+
+    @Override
+    public int nextInt(int aBound) {
+        return _rng.nextInt(aBound);
+    }
+
+    @Override
+    public long nextLong() {
+        return _rng.nextLong();
+    }
+}
@@ -0,0 +1,46 @@
+package sample;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Each bucket that has samples left is equally likely, regardless of how many it holds. Exhausted buckets are
+ * dropped by shuffling down those after them which is O(n) but consumes random numbers exactly as
+ * {@link BucketConsumer} always has.
+ */
+class UniformChooser implements BucketChooser {
+    private final RandomGenerator _rng;
+    private final int[] _live;
+    private int _liveCount;
+    private int _lastPosition = -1;
+
+    UniformChooser(int[] aCounts, RandomGenerator anRNG) {
+        _rng = anRNG;
+        _live = new int[aCounts.length];
+        _liveCount = aCounts.length;
+
+        for (int i = 0; i < _live.length; i++)
+            _live[i] = i;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return _liveCount != 0;
+    }
+
+    @Override
+    public int choose() {
+        _lastPosition = _rng.nextInt(_liveCount);
+
+        return _live[_lastPosition];
+    }
+
+    @Override
+    public boolean drawn(int aRemaining) {
+        if (aRemaining == 0) {
+            System.arraycopy(_live, _lastPosition + 1, _live, _lastPosition, _liveCount - _lastPosition - 1);
+            --_liveCount;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,83 @@
+import org.apache.commons.math3.random.Well44497b;
+import org.junit.Assert;
+import org.junit.Test;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+
+public class ArrivalProcessTest {
+    private static final int REQS_PER_SEC = 2000;
+    private static final int RUN_SECONDS = 60;
+
+    @Test
+    public void testEvenSpacing() {
+        ArrivalProcess myArrivals = ArrivalPattern.EVEN.create(3, RUN_SECONDS, new Well44497b(1));
+        long[] myTimes = new long[7];
+
+        myArrivals.fill(myTimes, 4);
+        Assert.assertArrayEquals(new long[] {0, 333, 667, 1000, 0, 0, 0}, myTimes);
+
+        myArrivals.fill(myTimes, 3);
+        Assert.assertArrayEquals(new long[] {1333, 1667, 2000, 1000, 0, 0, 0}, myTimes);
+    }
+
+    @Test
+    public void testMeanRate() {
+        for (ArrivalPattern myPattern : ArrivalPattern.values()) {
+            ArrivalProcess myArrivals = myPattern.create(REQS_PER_SEC, RUN_SECONDS, new Well44497b(42));
+            long[] myTimes = new long[REQS_PER_SEC * RUN_SECONDS];
+            long myLast = 0;
+
+            Assert.assertEquals(myPattern.getTicksPerMilli(), myArrivals.ticksPerMilli());
+
+            myArrivals.fill(myTimes, myTimes.length);
+
+            for (long myTime : myTimes) {
+                Assert.assertTrue(myPattern + " out of order", myTime >= myLast);
+                myLast = myTime;
+            }
+
+            double mySeconds = (double) myLast / myArrivals.ticksPerMilli() / 1000;
+
+            Assert.assertEquals(myPattern.toString(), RUN_SECONDS, mySeconds, RUN_SECONDS * 0.1);
+        }
+    }
+
+    @Test
+    public void testPoissonIsSubMillisecond() {
+        ArrivalProcess myArrivals = ArrivalPattern.POISSON.create(10000, RUN_SECONDS, new Well44497b(7));
+        long[] myTimes = new long[1000];
+
+        myArrivals.fill(myTimes, myTimes.length);
+
+        // 10 per millisecond on average, almost none should share a tick
+        //
+        int myCollisions = 0;
+
+        for (int i = 1; i < myTimes.length; i++)
+            if (myTimes[i] == myTimes[i - 1])
+                ++myCollisions;
+
+        Assert.assertTrue(myCollisions < 20);
+    }
+
+    @Test
+    public void testBurstsBreachMore() {
+        Assert.assertTrue(breaches(ArrivalPattern.BURSTY) > breaches(ArrivalPattern.POISSON));
+    }
+
+    private long breaches(ArrivalPattern aPattern) {
+        Well44497b myGen = new Well44497b(99);
+        ThrottlePolicy myPolicy = new ThrottlePolicy(30, 1000L * aPattern.getTicksPerMilli());
+        LB myLB = new LB(20, myPolicy, false, SelectionStrategy.HEAP);
+
+        myLB.allocate(new IntBucketConsumer(new IntBucket[] {new FixedDurationBucket(50, 20 * REQS_PER_SEC)}, myGen),
+                aPattern.create(REQS_PER_SEC / 4, RUN_SECONDS, myGen), false);
+
+        long myBreaches = 0;
+
+        for (Node myNode : myLB.getNodes())
+            myBreaches += myNode.getBreachCount();
+
+        return myBreaches;
+    }
+}
@@ -3,6 +3,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import sample.Bucket;
 import sample.BucketConsumer;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+import sample.Sampling;
 
 public class BucketConsumerTest {
     @Test
@@ -46,4 +49,109 @@ public class BucketConsumerTest {
 
         Assert.assertEquals(2000, myTotal);
     }
+
+    @Test
+    public void proportionalTest() {
+        @SuppressWarnings("unchecked")
+        Bucket<Integer>[] myBuckets = new Bucket[2];
+        myBuckets[0] = new FixedDurationBucket(50, 1000);
+        myBuckets[1] = new FixedDurationBucket(100, 3000);
+
+        BucketConsumer<Integer> myConsumer = new BucketConsumer<>(myBuckets, new Well44497b(), Sampling.PROPORTIONAL);
+
+        int myFifties = 0;
+        int myOneHundreds = 0;
+        int myFiftiesInFirstHalf = 0;
+
+        while (myConsumer.claim()) {
+            switch (myConsumer.nextSample()) {
+                case 50 : ++myFifties ; break;
+                case 100 : ++myOneHundreds ; break;
+                default : throw new IllegalStateException();
+            }
+
+            if (myFifties + myOneHundreds == 2000)
+                myFiftiesInFirstHalf = myFifties;
+        }
+
+        // Every sample is consumed and, being drawn from one pot, roughly a quarter of the first half are fifties
+        //
+        Assert.assertEquals(1000, myFifties);
+        Assert.assertEquals(3000, myOneHundreds);
+        Assert.assertTrue(Math.abs(myFiftiesInFirstHalf - 500) < 100);
+    }
+
+    @Test
+    public void withReplacementTest() {
+        @SuppressWarnings("unchecked")
+        Bucket<Integer>[] myBuckets = new Bucket[3];
+        myBuckets[0] = new FixedDurationBucket(50, 10);
+        myBuckets[1] = new FixedDurationBucket(100, 30);
+        myBuckets[2] = new FixedDurationBucket(150, 0);
+
+        BucketConsumer<Integer> myConsumer = new BucketConsumer<>(myBuckets, new Well44497b(), Sampling.WITH_REPLACEMENT);
+
+        int myFifties = 0;
+        int myTotal = 0;
+
+        // Buckets are refilled as they run dry, only the total number of samples is bounded
+        //
+        while (myConsumer.claim()) {
+            int mySample = myConsumer.nextSample();
+
+            Assert.assertNotEquals(150, mySample);
+
+            if (mySample == 50)
+                ++myFifties;
+
+            ++myTotal;
+        }
+
+        Assert.assertEquals(40, myTotal);
+        Assert.assertTrue(myFifties > 0);
+        Assert.assertTrue(myFifties < 40);
+    }
+
+    @Test
+    public void intMatchesBoxedTest() {
+        for (Sampling mySampling : Sampling.values()) {
+            IntBucket[] myBuckets = new IntBucket[3];
+            myBuckets[0] = new TimeCeilingBucket(100, 20.0, 2000);
+            myBuckets[1] = new TimeCeilingBucket(200, 30.0, 2000);
+            myBuckets[2] = new TimeCeilingBucket(300, 50.0, 2000);
+
+            BucketConsumer<Integer> myBoxed = new BucketConsumer<>(myBuckets, new Well44497b(7), mySampling);
+            IntBucketConsumer myInts = new IntBucketConsumer(myBuckets, new Well44497b(7), mySampling);
+
+            while (myBoxed.claim()) {
+                Assert.assertTrue(myInts.claim());
+                Assert.assertEquals((int) myBoxed.nextSample(), myInts.nextSampleInt());
+            }
+
+            Assert.assertFalse(myInts.claim());
+        }
+    }
+
+    @Test
+    public void fillMatchesNextSampleTest() {
+        IntBucket[] myBuckets = new IntBucket[2];
+        myBuckets[0] = new TimeCeilingBucket(100, 40.0, 1000);
+        myBuckets[1] = new TimeCeilingBucket(200, 60.0, 1000);
+
+        IntBucketConsumer mySingles = new IntBucketConsumer(myBuckets, new Well44497b(7));
+        IntBucketConsumer myChunks = new IntBucketConsumer(myBuckets, new Well44497b(7));
+        int[] myChunk = new int[64];
+        int myTotal = 0;
+        int myCount;
+
+        while ((myCount = myChunks.fill(myChunk)) != 0) {
+            for (int i = 0; i < myCount; i++)
+                Assert.assertEquals(mySingles.nextSampleInt(), myChunk[i]);
+
+            myTotal += myCount;
+        }
+
+        Assert.assertEquals(1000, myTotal);
+        Assert.assertFalse(mySingles.claim());
+    }
 }
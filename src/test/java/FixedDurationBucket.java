@@ -1,7 +1,7 @@
 import org.apache.commons.math3.random.RandomGenerator;
-import sample.Bucket;
+import sample.IntBucket;
 
-class FixedDurationBucket implements Bucket<Integer> {
+class FixedDurationBucket implements IntBucket {
     private final int _duration;
     private final int _totalRequests;
     private int _remainingRequests;
@@ -13,7 +13,7 @@ class FixedDurationBucket implements Bucket<Integer> {
     }
 
     @Override
-    public Integer draw(RandomGenerator anRNG) {
+    public int drawInt(RandomGenerator anRNG) {
         if (_remainingRequests == 0)
             throw new IllegalStateException();
         else
@@ -29,7 +29,7 @@ class FixedDurationBucket implements Bucket<Integer> {
     }
     
     @Override
-    public Bucket<Integer> copy() {
+    public IntBucket copy() {
         return new FixedDurationBucket(_duration, _totalRequests);
     }
 }
@@ -0,0 +1,71 @@
+import org.junit.Assert;
+import org.junit.Test;
+import sample.IntBucket;
+import sample.Sampling;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ForkJoinSimTest {
+    private static final long SEED = 1234;
+    private static final int NUM_KEYS = 5000;
+
+    @Test
+    public void testSameSeedSameOutcomeAcrossCores() throws Exception {
+        ForkJoinSim mySingleCore = run(1);
+        ForkJoinSim myMultiCore = run(4);
+
+        Assert.assertNotEquals(0, mySingleCore.getHits());
+        Assert.assertEquals(mySingleCore.getHits(), myMultiCore.getHits());
+        Assert.assertEquals(mySingleCore.getMisses(), myMultiCore.getMisses());
+    }
+
+    @Test
+    public void testDrawnInPoolSameAcrossCores() throws Exception {
+        ForkJoinSim mySingleCore = run(1, Sampling.WITH_REPLACEMENT);
+        ForkJoinSim myMultiCore = run(4, Sampling.WITH_REPLACEMENT);
+
+        Assert.assertNotEquals(0, mySingleCore.getHits());
+        Assert.assertEquals(mySingleCore.getHits(), myMultiCore.getHits());
+        Assert.assertEquals(mySingleCore.getMisses(), myMultiCore.getMisses());
+    }
+
+    @Test
+    public void testEveryKeyRequested() throws Exception {
+        long myTotal = 0;
+
+        for (IntBucket myBucket : buckets())
+            myTotal += myBucket.numRemaining();
+
+        for (Sampling mySampling : new Sampling[] {Sampling.PROPORTIONAL, Sampling.WITH_REPLACEMENT}) {
+            ForkJoinSim mySim = run(2, mySampling);
+
+            Assert.assertEquals(mySampling.toString(), myTotal, mySim.getHits() + mySim.getMisses());
+        }
+    }
+
+    private ForkJoinSim run(int aNumCores) throws Exception {
+        return run(aNumCores, Sampling.PROPORTIONAL);
+    }
+
+    private ForkJoinSim run(int aNumCores, Sampling aSampling) throws Exception {
+        ForkJoinPool myPool = new ForkJoinPool(aNumCores);
+
+        try {
+            ForkJoinSim mySim = new ForkJoinSim(myPool, 4, CachePolicy.INT_LRU, 500, buckets(), aSampling, SEED);
+
+            mySim.invoke();
+            return mySim;
+        } finally {
+            myPool.shutdownNow();
+        }
+    }
+
+    private IntBucket[] buckets() {
+        IntBucket[] myBuckets = new IntBucket[NUM_KEYS];
+
+        for (int i = 0; i < myBuckets.length; i++)
+            myBuckets[i] = new CacheKeyBucket(i + 1, Math.max(20000 / (i + 1), 1));
+
+        return myBuckets;
+    }
+}
@@ -0,0 +1,88 @@
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well44497b;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyCacheTest {
+    private static final int SIZE = 64;
+
+    @Test
+    public void testHitAfterMiss() {
+        for (CachePolicy myPolicy : CachePolicy.values()) {
+            KeyCache myCache = myPolicy.create(SIZE, 1);
+
+            Assert.assertFalse(myPolicy.name(), myCache.access(1));
+            Assert.assertTrue(myPolicy.name(), myCache.access(1));
+        }
+    }
+
+    @Test
+    public void testCapacityBounded() {
+        for (CachePolicy myPolicy : CachePolicy.values()) {
+            KeyCache myCache = myPolicy.create(SIZE, 4);
+
+            for (int i = 0; i < SIZE * 4; i++)
+                myCache.access(i);
+
+            int myHits = 0;
+
+            for (int i = 0; i < SIZE * 4; i++)
+                if (myCache.access(i))
+                    ++myHits;
+
+            Assert.assertTrue(myPolicy.name() + " hits " + myHits, myHits <= SIZE);
+        }
+    }
+
+    @Test
+    public void testRecentlyUsedRetained() {
+        for (CachePolicy myPolicy : new CachePolicy[] {CachePolicy.LRU, CachePolicy.STRIPED_LRU,
+                CachePolicy.INT_LRU}) {
+            KeyCache myCache = myPolicy.create(SIZE, 1);
+
+            myCache.access(0);
+
+            // Keep touching key 0 while streaming through twice the capacity of other keys
+            //
+            for (int i = 1; i <= SIZE * 2; i++) {
+                myCache.access(i);
+                Assert.assertTrue(myPolicy.name(), myCache.access(0));
+            }
+        }
+    }
+
+    @Test
+    public void testFrequentKeySurvivesScan() {
+        for (CachePolicy myPolicy : new CachePolicy[] {CachePolicy.LFU, CachePolicy.TINY_LFU, CachePolicy.ARC,
+                CachePolicy.S3_FIFO}) {
+            KeyCache myCache = myPolicy.create(SIZE, 1);
+
+            for (int i = 0; i < 8; i++) {
+                myCache.access(0);
+                myCache.access(SIZE * 1000 + i);
+            }
+
+            // A long run of keys seen only once shouldn't displace a popular one
+            //
+            for (int i = 1; i <= SIZE * 4; i++)
+                myCache.access(i);
+
+            Assert.assertTrue(myPolicy.name(), myCache.access(0));
+        }
+    }
+
+    @Test
+    public void testIntLruMatchesLru() {
+        KeyCache myExpected = CachePolicy.LRU.create(SIZE, 1);
+        KeyCache myActual = CachePolicy.INT_LRU.create(SIZE, 1);
+        RandomGenerator myRNG = new Well44497b(99);
+
+        // Enough distinct keys to force plenty of evictions and probe collisions
+        //
+        for (int i = 0; i < 100000; i++) {
+            int myKey = myRNG.nextInt(SIZE * 3) * 1024;
+
+            Assert.assertEquals(myExpected.access(myKey), myActual.access(myKey));
+        }
+    }
+}
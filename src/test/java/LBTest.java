@@ -2,21 +2,20 @@ import org.apache.commons.math3.random.Well44497b;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
-import sample.Bucket;
-import sample.BucketConsumer;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
 
 import java.util.List;
 
 public class LBTest {
-    private BucketConsumer<Integer> _consumer;
+    private IntBucketConsumer _consumer;
 
     @Before
     public void setup() {
-        @SuppressWarnings("unchecked")
-        Bucket<Integer>[] myBuckets = new Bucket[1];
+        IntBucket[] myBuckets = new IntBucket[1];
         myBuckets[0] = new FixedDurationBucket(50, 2000);
 
-        _consumer = new BucketConsumer<>(myBuckets, new Well44497b());
+        _consumer = new IntBucketConsumer(myBuckets, new Well44497b());
     }
     
     @Test
@@ -53,6 +52,38 @@ public class LBTest {
         }
     }
 
+    @Test
+    public void testAllocateCountsRequests() {
+        long myRequests = SimMetrics.INSTANCE.getRequests();
+        long myBreaches = SimMetrics.INSTANCE.getEvents();
+
+        new LB(2, new ThrottlePolicy(450, 1000), false).allocate(_consumer, 1000);
+
+        Assert.assertEquals(2000, SimMetrics.INSTANCE.getRequests() - myRequests);
+        Assert.assertEquals(200, SimMetrics.INSTANCE.getEvents() - myBreaches);
+    }
+
+    @Test
+    public void testStopOnBreach() {
+        ThrottlePolicy myPolicy = new ThrottlePolicy(450, 1000);
+        LB myLB = new LB(2, myPolicy, false);
+
+        myLB.allocate(_consumer, 1000, true);
+
+        long myRequests = 0;
+        long myBreaches = 0;
+
+        for (Node myNode : myLB.getNodes()) {
+            myRequests += myNode.getRequestCount();
+            myBreaches += myNode.getBreachCount();
+        }
+
+        // Each node takes 450 of the first 900 requests in the first second, the next one breaches
+        //
+        Assert.assertEquals(1, myBreaches);
+        Assert.assertEquals(901, myRequests);
+    }
+
     @Test
     public void testMultiMillisecondGapBetweenRequests() {
         ThrottlePolicy myPolicy = new ThrottlePolicy(200, 1000);
@@ -88,6 +119,129 @@ public class LBTest {
         Assert.assertEquals(0, myB.getBreachCount());
     }
 
+    @Test
+    public void testHeapMatchesScan() {
+        assertMatchesScan(new Selection(SelectionStrategy.HEAP));
+    }
+
+    @Test
+    public void testEventsMatchScan() {
+        assertMatchesScan(new Selection(SelectionStrategy.EVENT));
+    }
+
+    @Test
+    public void testEventsMatchScanInMicroseconds() {
+        Selection myEvents = new Selection(SelectionStrategy.EVENT, 1, null, 1, ArrivalProcess.MICROS_PER_MILLI, 0);
+
+        assertSameNodes(allocatePoisson(new Selection(SelectionStrategy.SCAN)), allocatePoisson(myEvents));
+    }
+
+    /**
+     * As {@link #allocateVaried(Selection)} but arriving at random, in microseconds
+     */
+    private static LB allocatePoisson(Selection aSelection) {
+        LB myBalancer = new LB(VARIED_NODES, new ThrottlePolicy(12, 1000L * ArrivalProcess.MICROS_PER_MILLI), null,
+                false, aSelection, null);
+
+        myBalancer.allocate(variedDurations(40000), new PoissonArrivals(2000, new Well44497b(43)), false);
+
+        return myBalancer;
+    }
+
+    @Test
+    public void testStaleRefreshedEveryTickMatchesScan() {
+        assertMatchesScan(new Selection(SelectionStrategy.STALE, 1, null, 1, 0));
+    }
+
+    @Test
+    public void testRejectedTenantsDontMisleadSelectors() {
+        LB myScan = allocateTenanted(new Selection(SelectionStrategy.SCAN));
+
+        Assert.assertTrue(tenantBreaches(myScan) > 0);
+
+        // Those that count their own requests or keep a heap must not count a connection the node never took
+        //
+        assertSameNodes(myScan, allocateTenanted(new Selection(SelectionStrategy.EVENT)));
+        assertSameNodes(myScan, allocateTenanted(new Selection(SelectionStrategy.HEAP)));
+        assertSameNodes(myScan, allocateTenanted(new Selection(SelectionStrategy.STALE, 1, null, 1, 0)));
+    }
+
+    private static LB allocateTenanted(Selection aSelection) {
+        return allocateTenanted(new LB(VARIED_NODES, new ThrottlePolicy(12, 1000), TENANT_POLICY, false, aSelection,
+                null));
+    }
+
+    private void assertMatchesScan(Selection aSelection) {
+        assertSameNodes(allocateVaried(new Selection(SelectionStrategy.SCAN)), allocateVaried(aSelection));
+    }
+
+    static final int VARIED_NODES = 50;
+
+    static LB allocateVaried(Selection aSelection) {
+        return allocateVaried(new LB(VARIED_NODES, new ThrottlePolicy(12, 1000), null, false, aSelection, null));
+    }
+
+    /**
+     * Allocate 40000 requests of varied duration at 2000 per second, the same for any balancer
+     */
+    static LB allocateVaried(LB aBalancer) {
+        aBalancer.allocate(variedDurations(40000), 2000);
+
+        return aBalancer;
+    }
+
+    private static IntBucketConsumer variedDurations(int aTotal) {
+        IntBucket[] myBuckets = new IntBucket[20];
+
+        for (int i = 0; i < myBuckets.length; i++)
+            myBuckets[i] = new TimeCeilingBucket(100 * (i + 1), 5.0, aTotal);
+
+        return new IntBucketConsumer(myBuckets, new Well44497b(42));
+    }
+
+    static final ThrottlePolicy TENANT_POLICY = new ThrottlePolicy(2, 1000);
+
+    /**
+     * As {@link #allocateVaried(LB)} but 160000 requests, several chunks' worth, with a third from tenants and many of
+     * those over their limit
+     */
+    static LB allocateTenanted(LB aBalancer) {
+        aBalancer.allocate(variedDurations(160000), new EvenArrivals(2000),
+                new TenantMix(20, 1.0, 0.33).withGenerator(new Well44497b(43)), false);
+
+        return aBalancer;
+    }
+
+    static long tenantBreaches(LB aBalancer) {
+        long myTotal = 0;
+
+        for (Node myNode : aBalancer.getNodes())
+            myTotal += myNode.getTenantBreachCount();
+
+        return myTotal;
+    }
+
+    static void assertSameNodes(LB anExpected, LB anActual) {
+        Assert.assertEquals(anExpected.getNodes().size(), anActual.getNodes().size());
+
+        for (int i = 0; i < anExpected.getNodes().size(); i++) {
+            Node myExpected = anExpected.getNodes().get(i);
+            Node myActual = anActual.getNodes().get(i);
+
+            Assert.assertEquals(myExpected.getRequestCount(), myActual.getRequestCount());
+            Assert.assertEquals(myExpected.getBreachCount(), myActual.getBreachCount());
+        }
+    }
+
+    static long breaches(LB aBalancer) {
+        long myTotal = 0;
+
+        for (Node myNode : aBalancer.getNodes())
+            myTotal += myNode.getBreachCount();
+
+        return myTotal;
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNegReqsPerSecFails() {
         ThrottlePolicy myPolicy = new ThrottlePolicy(500, 1000);
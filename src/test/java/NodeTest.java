@@ -105,4 +105,37 @@ public class NodeTest {
         Assert.assertEquals((LIMIT + 1) * 5, _node.getRequestCount());
         Assert.assertEquals(5, _node.getBreachCount());
     }
+
+    @Test
+    public void testBreachRecordsRequest() {
+        Node myNode = new Node(NODE_ID, new ThrottlePolicy(LIMIT, SCOPE), true);
+
+        for (int i = 0; i < LIMIT + 1; i++) {
+            myNode.currentConnections(i);
+            myNode.incomingRequest(1000, i);
+        }
+
+        Assert.assertEquals(1, myNode.getBreaches().size());
+
+        Request myRequest = myNode.getBreaches().get(0).getRequest();
+
+        Assert.assertEquals(LIMIT + 1, myRequest.getId());
+        Assert.assertEquals(LIMIT, myRequest.getStartTime());
+        Assert.assertEquals(LIMIT + 1000, myRequest.getExpiry());
+    }
+
+    @Test
+    public void testNextExpiry() {
+        Assert.assertEquals(Long.MAX_VALUE, _node.nextExpiry());
+
+        _node.incomingRequest(500, 0);
+        _node.incomingRequest(100, 0);
+        _node.incomingRequest(300, 0);
+
+        Assert.assertEquals(100, _node.nextExpiry());
+        Assert.assertEquals(2, _node.currentConnections(100));
+        Assert.assertEquals(300, _node.nextExpiry());
+        Assert.assertEquals(0, _node.currentConnections(500));
+        Assert.assertEquals(Long.MAX_VALUE, _node.nextExpiry());
+    }
 }
@@ -0,0 +1,91 @@
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+public class RequestLogTest {
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    @Test
+    public void testReplayMatchesAllocate() throws Exception {
+        Path myFile = _folder.newFile("even.rlog").toPath();
+
+        // The times allocate gives 2000 requests at 1000 per second
+        //
+        try (RequestLogWriter myWriter = new RequestLogWriter(myFile)) {
+            for (int i = 0; i < 2000; i++)
+                myWriter.append(i, 50);
+        }
+
+        LB myLB = new LB(2, new ThrottlePolicy(450, 1000), false);
+
+        try (RequestLog myLog = new RequestLog(myFile)) {
+            Assert.assertEquals(2000, myLog.size());
+
+            myLB.replay(myLog, false);
+        }
+
+        for (Node myNode : myLB.getNodes()) {
+            Assert.assertEquals(1000, myNode.getRequestCount());
+            Assert.assertEquals(100, myNode.getBreachCount());
+        }
+    }
+
+    @Test
+    public void testReplayUsesArrivalTimes() throws Exception {
+        Path myFile = _folder.newFile("burst.rlog").toPath();
+
+        // Ten requests in the first millisecond then ten spread over the next ten seconds
+        //
+        try (RequestLogWriter myWriter = new RequestLogWriter(myFile)) {
+            for (int i = 0; i < 10; i++)
+                myWriter.append(0, 5);
+
+            for (int i = 1; i <= 10; i++)
+                myWriter.append(i * 1000, 5);
+        }
+
+        LB myLB = new LB(1, new ThrottlePolicy(4, 1000), false);
+
+        try (RequestLog myLog = new RequestLog(myFile)) {
+            myLB.replay(myLog, false);
+        }
+
+        Assert.assertEquals(20, myLB.getNodes().get(0).getRequestCount());
+        Assert.assertEquals(6, myLB.getNodes().get(0).getBreachCount());
+    }
+
+    @Test
+    public void testConvertSkipsHeader() throws Exception {
+        Path myFile = _folder.newFile("converted.rlog").toPath();
+
+        try (RequestLogWriter myWriter = new RequestLogWriter(myFile)) {
+            CsvToRequestLog.convert(new BufferedReader(new StringReader("path,time,duration\n/a,100,12.4\n/b,100,7\n\n/c,250,30\n")),
+                    myWriter, 1, 2);
+        }
+
+        long[] myTimes = new long[4];
+        int[] myDurations = new int[4];
+
+        try (RequestLog myLog = new RequestLog(myFile)) {
+            Assert.assertEquals(3, myLog.fill(myTimes, myDurations));
+            Assert.assertEquals(0, myLog.fill(myTimes, myDurations));
+        }
+
+        Assert.assertArrayEquals(new long[] {100, 100, 250, 0}, myTimes);
+        Assert.assertArrayEquals(new int[] {12, 7, 30, 0}, myDurations);
+    }
+
+    @Test(expected = IOException.class)
+    public void testConvertRejectsDisorder() throws Exception {
+        try (RequestLogWriter myWriter = new RequestLogWriter(_folder.newFile("disorder.rlog").toPath())) {
+            CsvToRequestLog.convert(new BufferedReader(new StringReader("200,5\n100,5\n")), myWriter, 0, 1);
+        }
+    }
+}
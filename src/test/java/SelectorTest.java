@@ -0,0 +1,183 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SelectorTest {
+    private static List<Node> nodes(int aCount) {
+        List<Node> myNodes = new ArrayList<>();
+
+        for (int i = 0; i < aCount; i++)
+            myNodes.add(new Node(i, new ThrottlePolicy(Integer.MAX_VALUE, 1000), false));
+
+        return myNodes;
+    }
+
+    private static List<ConnectionTracker> trackers(int aCount) {
+        List<ConnectionTracker> myTrackers = new ArrayList<>();
+
+        for (int i = 0; i < aCount; i++)
+            myTrackers.add(new ConnectionTracker());
+
+        return myTrackers;
+    }
+
+    private static int[] counts(NodeSelector aSelector, int aNodes, int aRequests) {
+        int[] myCounts = new int[aNodes];
+
+        for (int i = 0; i < aRequests; i++)
+            ++myCounts[aSelector.select(i)];
+
+        return myCounts;
+    }
+
+    @Test
+    public void testRoundRobinCycles() {
+        NodeSelector mySelector = SelectionStrategy.ROUND_ROBIN.create(nodes(3));
+
+        for (int i = 0; i < 7; i++)
+            Assert.assertEquals(i % 3, mySelector.select(i));
+    }
+
+    @Test
+    public void testWeightedRandomFollowsWeights() {
+        Selection mySelection = new Selection(SelectionStrategy.WEIGHTED_RANDOM, 1, new double[] {1, 3, 0}, 1, 5);
+        int[] myCounts = counts(mySelection.create(nodes(6)), 6, 80000);
+
+        // Weights repeat so nodes 0 and 3 get 1/8 each, 1 and 4 3/8 each and 2 and 5 nothing
+        //
+        for (int i = 0; i < 6; i++)
+            Assert.assertEquals(new double[] {0.125, 0.375, 0}[i % 3], myCounts[i] / 80000.0, 0.01);
+    }
+
+    @Test
+    public void testConsistentHashIsSticky() {
+        Selection mySelection = new Selection(SelectionStrategy.CONSISTENT_HASH, 1, new double[] {1, 2}, 1, 5);
+        NodeSelector mySelector = mySelection.create(nodes(100));
+        int[] myFirst = new int[1000];
+        int[] myCounts = new int[100];
+
+        for (int myKey = 0; myKey < myFirst.length; myKey++) {
+            myFirst[myKey] = mySelector.select(myKey, myKey);
+            ++myCounts[myFirst[myKey]];
+        }
+
+        for (int myKey = 0; myKey < myFirst.length; myKey++)
+            Assert.assertEquals(myFirst[myKey], mySelector.select(myFirst.length + myKey, myKey));
+
+        // Untenanted requests are spread in proportion to weight, odd nodes having twice the ring of even ones
+        //
+        int[] myRandom = counts(mySelector, 100, 300000);
+        long myOdd = 0;
+
+        for (int i = 1; i < 100; i += 2)
+            myOdd += myRandom[i];
+
+        Assert.assertEquals(2.0 / 3, myOdd / 300000.0, 0.03);
+    }
+
+    @Test
+    public void testPowerOfDPicksLeastLoadedSampled() {
+        List<Node> myNodes = nodes(4);
+
+        // Load every node but the last, sampling all four must always find it
+        //
+        for (int i = 0; i < 3; i++)
+            myNodes.get(i).incomingRequest(1000, 0);
+
+        NodeSelector mySelector = new Selection(SelectionStrategy.POWER_OF_D, 4, null, 1, 9).create(myNodes);
+
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals(3, mySelector.select(i));
+    }
+
+    @Test
+    public void testPowerOfTwoBalancesBetterThanRandom() {
+        Assert.assertTrue(maxLoad(SelectionStrategy.POWER_OF_D) < maxLoad(SelectionStrategy.WEIGHTED_RANDOM));
+    }
+
+    private int maxLoad(SelectionStrategy aStrategy) {
+        List<Node> myNodes = nodes(500);
+        NodeSelector mySelector = new Selection(aStrategy, 2, null, 1, 11).create(myNodes);
+        int myMax = 0;
+
+        // Long requests so load builds up
+        //
+        for (int i = 0; i < 5000; i++) {
+            int myChoice = mySelector.select(i);
+
+            myNodes.get(myChoice).incomingRequest(100000, i);
+            mySelector.admitted(myChoice, 100000, i);
+            myMax = Math.max(myMax, myNodes.get(myChoice).activeConnections());
+        }
+
+        return myMax;
+    }
+
+    @Test
+    public void testFrozenSnapshotHerds() {
+        long myPrevious = -1;
+
+        // The longer the view stays frozen the more requests herd onto one node, at a limit that exact least
+        // connections barely breaches
+        //
+        for (long myRefresh : new long[] {1, 10, 100, 1000}) {
+            long myBreaches = LBTest.breaches(LBTest.allocateVaried(new LB(LBTest.VARIED_NODES,
+                    new ThrottlePolicy(50, 1000), null, false,
+                    new Selection(SelectionStrategy.STALE_SNAPSHOT, 1, null, myRefresh, 0), null)));
+
+            Assert.assertTrue(myRefresh + " ms", myBreaches > myPrevious);
+            myPrevious = myBreaches;
+        }
+    }
+
+    @Test
+    public void testNeverRefreshedIsRoundRobin() {
+        NodeSelector myStale = new Selection(SelectionStrategy.STALE, 1, null, Long.MAX_VALUE / 2, 0).create(nodes(7));
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(i % 7, myStale.select(i));
+            myStale.admitted(i % 7, 10, i);
+        }
+    }
+
+    @Test
+    public void testWithdrawnForgottenAsScanForgetsThem() {
+        int[] myScan = withdrawing(SelectionStrategy.SCAN);
+
+        Assert.assertArrayEquals(myScan, withdrawing(SelectionStrategy.HEAP));
+        Assert.assertArrayEquals(myScan, withdrawing(SelectionStrategy.EVENT));
+    }
+
+    /**
+     * Send a request a tick to a view of 7 nodes, withdrawing every third 30 ticks later as a balancer learning of
+     * rejections after the fact would. Some of those withdrawn will have finished by then.
+     */
+    private static int[] withdrawing(SelectionStrategy aStrategy) {
+        List<ConnectionTracker> myView = trackers(7);
+        NodeSelector mySelector = aStrategy.create(myView);
+        int[] myTargets = new int[3000];
+
+        for (int myTime = 0; myTime < myTargets.length; myTime++) {
+            int myTarget = mySelector.select(myTime);
+
+            myTargets[myTime] = myTarget;
+            myView.get(myTarget).add(myTime + duration(myTime));
+            mySelector.admitted(myTarget, duration(myTime), myTime);
+
+            int mySent = myTime - 30;
+
+            if ((mySent >= 0) && (mySent % 3 == 0)) {
+                myView.get(myTargets[mySent]).withdraw(mySent + duration(mySent));
+                mySelector.withdrawn(myTargets[mySent], duration(mySent), mySent);
+            }
+        }
+
+        return myTargets;
+    }
+
+    private static int duration(int aTime) {
+        return 10 + (aTime % 7) * 10;
+    }
+}
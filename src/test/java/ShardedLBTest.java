@@ -0,0 +1,75 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ShardedLBTest {
+    private static final ThrottlePolicy POLICY = new ThrottlePolicy(50, 1000);
+
+    private final ForkJoinPool _pool = new ForkJoinPool(3);
+
+    @After
+    public void shutdown() {
+        _pool.shutdownNow();
+    }
+
+    private static LB single() {
+        return new LB(LBTest.VARIED_NODES, POLICY, null, false, new Selection(SelectionStrategy.HEAP), null);
+    }
+
+    private static LB sharded(ForkJoinPool aPool, int aShards, Selection aSelection) {
+        return new ShardedLB(aPool, aShards, LBTest.VARIED_NODES, POLICY, null, false, aSelection, 7);
+    }
+
+    @Test
+    public void testOneShardIsOneBalancer() {
+        LBTest.assertSameNodes(LBTest.allocateVaried(single()),
+                LBTest.allocateVaried(sharded(_pool, 1, new Selection(SelectionStrategy.HEAP))));
+    }
+
+    @Test
+    public void testSameWhateverThePool() {
+        ForkJoinPool mySerial = new ForkJoinPool(1);
+
+        try {
+            Selection mySelection = new Selection(SelectionStrategy.POWER_OF_D, 2, null, 1, 0);
+
+            LBTest.assertSameNodes(LBTest.allocateVaried(sharded(_pool, 4, mySelection)),
+                    LBTest.allocateVaried(sharded(mySerial, 4, mySelection)));
+        } finally {
+            mySerial.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedTenantsWithdrawn() {
+        LB myScan = LBTest.allocateTenanted(tenanted(new Selection(SelectionStrategy.SCAN)));
+
+        Assert.assertTrue(LBTest.tenantBreaches(myScan) > 0);
+
+        // Selectors keeping their own counts must forget rejected requests just as the balancers' views do
+        //
+        LBTest.assertSameNodes(myScan, LBTest.allocateTenanted(tenanted(new Selection(SelectionStrategy.EVENT))));
+        LBTest.assertSameNodes(myScan, LBTest.allocateTenanted(tenanted(new Selection(SelectionStrategy.HEAP))));
+    }
+
+    private LB tenanted(Selection aSelection) {
+        return new ShardedLB(_pool, 4, LBTest.VARIED_NODES, POLICY, LBTest.TENANT_POLICY, false, aSelection, 7);
+    }
+
+    @Test
+    public void testShardsSplitArrivals() {
+        LB mySharded = LBTest.allocateVaried(sharded(_pool, 8, new Selection(SelectionStrategy.HEAP)));
+        long myTotal = 0;
+
+        for (Node myNode : mySharded.getNodes())
+            myTotal += myNode.getRequestCount();
+
+        Assert.assertEquals(40000, myTotal);
+
+        // Balancers that only see their own connections spread load less evenly than one that sees them all
+        //
+        Assert.assertTrue(LBTest.breaches(mySharded) > LBTest.breaches(LBTest.allocateVaried(single())));
+    }
+}
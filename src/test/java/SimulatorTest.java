@@ -0,0 +1,106 @@
+import org.apache.commons.math3.random.Well44497b;
+import org.junit.Assert;
+import org.junit.Test;
+import sample.IntBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SimulatorTest {
+    private static final long SEED = 1234;
+    private static final int REQS_PER_SEC = 1000;
+    private static final int RUN_TIME_IN_SECONDS = 20;
+
+    @Test
+    public void testSameSeedSameOutcomeAcrossCores() throws Exception {
+        List<Long> mySingleCore = breachTotals(1, 4);
+        List<Long> myMultiCore = breachTotals(4, 4);
+
+        Assert.assertNotEquals(0L, (long) mySingleCore.get(0));
+
+        for (int i = 0; i < mySingleCore.size(); i++) {
+            Assert.assertEquals(mySingleCore.get(0), mySingleCore.get(i));
+            Assert.assertEquals(mySingleCore.get(0), myMultiCore.get(i));
+        }
+    }
+
+    @Test
+    public void testCancelledSimAccountedFor() {
+        SimMetrics myMetrics = SimMetrics.INSTANCE;
+        long myStarted = myMetrics.getSimulationsStarted();
+        long myCompleted = myMetrics.getSimulationsCompleted();
+        long myCancelled = myMetrics.getSimulationsCancelled();
+        Simulator mySim = new Simulator(false, buckets(), REQS_PER_SEC,
+                new LB(50, new ThrottlePolicy(25, 1000), false), new Well44497b(SEED));
+
+        // Interrupted as a cancelled search would be
+        //
+        Thread.currentThread().interrupt();
+
+        try {
+            mySim.call();
+            Assert.fail("Should have been cancelled");
+        } catch (CancellationException anE) {
+            Assert.assertTrue(Thread.interrupted());
+        }
+
+        Assert.assertEquals(myStarted + 1, myMetrics.getSimulationsStarted());
+        Assert.assertEquals(myCompleted, myMetrics.getSimulationsCompleted());
+        Assert.assertEquals(myCancelled + 1, myMetrics.getSimulationsCancelled());
+    }
+
+    @Test
+    public void testWindowCountsPredictBreaches() {
+        Simulator myUnlimited = new Simulator(false, buckets(), REQS_PER_SEC,
+                new LB(50, new ThrottlePolicy(Integer.MAX_VALUE, 1000), false), new Well44497b(SEED));
+
+        myUnlimited.call();
+
+        Assert.assertEquals(0, myUnlimited.getBreachTotal());
+
+        for (int myLimit = 15; myLimit <= myUnlimited.getWindowCounts().maxCount(); myLimit++) {
+            Simulator myLimited = new Simulator(false, buckets(), REQS_PER_SEC,
+                    new LB(50, new ThrottlePolicy(myLimit, 1000), false), new Well44497b(SEED));
+
+            myLimited.call();
+
+            Assert.assertEquals(myLimited.getBreachTotal(), myUnlimited.getWindowCounts().excessOver(myLimit));
+            Assert.assertEquals(myLimited.getBreachedNodeTotal(), myUnlimited.getPeakCounts().countAbove(myLimit));
+        }
+
+        Assert.assertNotEquals(0, myUnlimited.getWindowCounts().excessOver(15));
+    }
+
+    private List<Long> breachTotals(int aNumCores, int aNumSims) throws Exception {
+        ExecutorService myExecutor = Executors.newFixedThreadPool(aNumCores);
+        List<Future<Simulator>> myFutures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < aNumSims; i++)
+                myFutures.add(myExecutor.submit(new Simulator(false, buckets(), REQS_PER_SEC,
+                        new LB(50, new ThrottlePolicy(22, 1000), false), new Well44497b(SEED))));
+
+            List<Long> myTotals = new ArrayList<>();
+
+            for (Future<Simulator> myFuture : myFutures)
+                myTotals.add(myFuture.get().getBreachTotal());
+
+            return myTotals;
+        } finally {
+            myExecutor.shutdownNow();
+        }
+    }
+
+    private IntBucket[] buckets() {
+        IntBucket[] myBuckets = new IntBucket[20];
+
+        for (int i = 0; i < myBuckets.length; i++)
+            myBuckets[i] = new TimeCeilingBucket(100 * (i + 1), 5.0, REQS_PER_SEC * RUN_TIME_IN_SECONDS);
+
+        return myBuckets;
+    }
+}
@@ -0,0 +1,59 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StoppingRuleTest {
+    @Test
+    public void testClearReplicas() {
+        // 0.75^10 > 0.05 > 0.75^11
+        //
+        Assert.assertEquals(11, new StoppingRule(0.95, 0.25).clearReplicas());
+        Assert.assertEquals(5, new StoppingRule(0.95, 0.5).clearReplicas());
+    }
+
+    @Test
+    public void testClearlyBreachFree() {
+        StoppingRule myRule = new StoppingRule(0.95, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            myRule.add(0, 1000);
+            Assert.assertFalse(myRule.isDecided());
+        }
+
+        myRule.add(0, 1000);
+
+        Assert.assertTrue(myRule.isClearlyBreachFree());
+        Assert.assertFalse(myRule.isClearlyBreaching());
+    }
+
+    @Test
+    public void testClearlyBreaching() {
+        StoppingRule myRule = new StoppingRule(0.95, 0.25);
+
+        myRule.add(10, 1000);
+        myRule.add(12, 1000);
+        Assert.assertFalse(myRule.isDecided());
+
+        myRule.add(11, 1000);
+        Assert.assertTrue(myRule.isClearlyBreaching());
+        Assert.assertEquals(11.0, myRule.meanBreaches(), 0.0);
+    }
+
+    @Test
+    public void testOccasionalBreachUndecided() {
+        StoppingRule myRule = new StoppingRule(0.95, 0.25);
+
+        myRule.add(0, 1000);
+        myRule.add(1, 1000);
+        myRule.add(0, 1000);
+        myRule.add(0, 1000);
+
+        // Interval spans zero and a breach has been seen so neither rule applies
+        //
+        Assert.assertFalse(myRule.isDecided());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadConfidence() {
+        new StoppingRule(1.0, 0.25);
+    }
+}
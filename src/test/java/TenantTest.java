@@ -0,0 +1,78 @@
+import org.apache.commons.math3.random.Well44497b;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TenantTest {
+    private static final int LIMIT = 3;
+    private static final long SCOPE = 1000;
+
+    @Test
+    public void testCountersPerTenant() {
+        TenantCounters myCounters = new TenantCounters(new ThrottlePolicy(LIMIT, SCOPE));
+
+        // Enough tenants to force the map to grow several times, each one over its limit by its id mod 3
+        //
+        for (int myTenant = 0; myTenant < 1000; myTenant++)
+            for (int i = 0; i < LIMIT + (myTenant % 3); i++)
+                Assert.assertEquals(i >= LIMIT, myCounters.breaches(myTenant * 7, 0));
+
+        Assert.assertEquals(1000, myCounters.size());
+
+        long[] myTotals = new long[7000];
+
+        myCounters.addBreaches(myTotals);
+
+        for (int myTenant = 0; myTenant < 1000; myTenant++) {
+            Assert.assertEquals(myTenant % 3, myCounters.getBreaches(myTenant * 7));
+            Assert.assertEquals(myTenant % 3, myTotals[myTenant * 7]);
+        }
+
+        // A new window, a fresh allowance
+        //
+        Assert.assertFalse(myCounters.breaches(0, SCOPE));
+        Assert.assertEquals(0, myCounters.getBreaches(1));
+    }
+
+    @Test
+    public void testNodeCountsTenantBreachesSeparately() {
+        Node myNode = new Node(0, new ThrottlePolicy(LIMIT * 2, SCOPE), new ThrottlePolicy(LIMIT, SCOPE), false);
+
+        for (int i = 0; i < LIMIT + 1; i++)
+            Assert.assertFalse(myNode.incomingRequest(10, i, 5));
+
+        // The tenant's rejected request takes no connection and leaves room for all the background load
+        //
+        Assert.assertEquals(LIMIT, myNode.currentConnections(LIMIT));
+
+        for (int i = 0; i < LIMIT; i++)
+            Assert.assertFalse(myNode.incomingRequest(10, i, TenantMix.NO_TENANT));
+
+        Assert.assertTrue(myNode.incomingRequest(10, LIMIT, TenantMix.NO_TENANT));
+        Assert.assertEquals(1, myNode.getTenantBreachCount());
+        Assert.assertEquals(1, myNode.getBreachCount());
+    }
+
+    @Test
+    public void testMixSharesAndSkew() {
+        TenantMix myMix = new TenantMix(100, 1.0, 0.25).withGenerator(new Well44497b(3));
+        int[] myTenants = new int[400000];
+        int[] myCounts = new int[100];
+        int myBackground = 0;
+
+        myMix.fill(myTenants, myTenants.length);
+
+        for (int myTenant : myTenants) {
+            if (myTenant == TenantMix.NO_TENANT)
+                ++myBackground;
+            else
+                ++myCounts[myTenant];
+        }
+
+        Assert.assertEquals(0.75, (double) myBackground / myTenants.length, 0.01);
+
+        // Zipf with exponent one, the busiest tenant sends twice the second's and ten times the tenth's
+        //
+        Assert.assertEquals(2.0, (double) myCounts[0] / myCounts[1], 0.1);
+        Assert.assertEquals(10.0, (double) myCounts[0] / myCounts[9], 1.0);
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThrottleTest {
+    private static final int LIMIT = 10;
+    private static final long SCOPE = 1000;
+
+    private static Throttle create(ThrottleAlgorithm anAlgorithm) {
+        return new ThrottlePolicy(LIMIT, SCOPE, anAlgorithm).newThrottle();
+    }
+
+    private static int offer(Throttle aThrottle, long aTime, int aCount) {
+        int myBreaches = 0;
+
+        for (int i = 0; i < aCount; i++)
+            if (aThrottle.breaches(aTime))
+                ++myBreaches;
+
+        return myBreaches;
+    }
+
+    @Test
+    public void testLimitWithinScope() {
+        for (ThrottleAlgorithm myAlgorithm : ThrottleAlgorithm.values()) {
+            Throttle myThrottle = create(myAlgorithm);
+
+            Assert.assertEquals(myAlgorithm.toString(), 5, offer(myThrottle, 100, LIMIT + 5));
+            Assert.assertEquals(myAlgorithm.toString(), LIMIT, myThrottle.inScope());
+        }
+    }
+
+    @Test
+    public void testFixedWindowResetsAtBoundary() {
+        Throttle myThrottle = create(ThrottleAlgorithm.FIXED_WINDOW);
+
+        Assert.assertEquals(0, offer(myThrottle, SCOPE - 1, LIMIT));
+        Assert.assertEquals(0, offer(myThrottle, SCOPE, LIMIT));
+        Assert.assertEquals(1, offer(myThrottle, SCOPE + 1, 1));
+    }
+
+    @Test
+    public void testSlidingLogSpansBoundary() {
+        Throttle myThrottle = create(ThrottleAlgorithm.SLIDING_LOG);
+
+        Assert.assertEquals(0, offer(myThrottle, SCOPE - 1, LIMIT));
+        Assert.assertEquals(LIMIT, offer(myThrottle, SCOPE, LIMIT));
+
+        // The first requests drop out of the log a full scope after they arrived
+        //
+        Assert.assertEquals(0, offer(myThrottle, 2 * SCOPE - 1, LIMIT));
+        Assert.assertEquals(LIMIT, myThrottle.inScope());
+    }
+
+    @Test
+    public void testSlidingWindowWeightsPrevious() {
+        Throttle myThrottle = create(ThrottleAlgorithm.SLIDING_WINDOW);
+
+        Assert.assertEquals(0, offer(myThrottle, 0, LIMIT));
+
+        // A quarter of the way into the next window three quarters of the previous count still applies, leaving room
+        // for two more
+        //
+        Assert.assertEquals(2, offer(myThrottle, SCOPE + SCOPE / 4, 4));
+
+        // Halfway there's room for another three
+        //
+        Assert.assertEquals(1, offer(myThrottle, SCOPE + SCOPE / 2, 4));
+    }
+
+    @Test
+    public void testTokenBucketRefills() {
+        Throttle myThrottle = create(ThrottleAlgorithm.TOKEN_BUCKET);
+
+        Assert.assertEquals(0, offer(myThrottle, 0, LIMIT));
+        Assert.assertEquals(1, offer(myThrottle, 0, 1));
+
+        // A token per tenth of the scope
+        //
+        Assert.assertEquals(1, offer(myThrottle, SCOPE / 2, 6));
+        Assert.assertEquals(0, offer(myThrottle, SCOPE * 3, LIMIT));
+    }
+
+    @Test
+    public void testBreachesDontCount() {
+        Throttle myThrottle = create(ThrottleAlgorithm.SLIDING_LOG);
+
+        Assert.assertEquals(0, offer(myThrottle, 0, LIMIT));
+        Assert.assertEquals(LIMIT, offer(myThrottle, SCOPE / 2, LIMIT));
+        Assert.assertEquals(0, offer(myThrottle, SCOPE, LIMIT));
+    }
+}
@@ -0,0 +1,112 @@
+import org.apache.commons.math3.random.Well44497b;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sample.IntBucket;
+import sample.IntBucketConsumer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+public class TraceTest {
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    @Test
+    public void testRenderMatchesBreaches() throws Exception {
+        Path myFile = _folder.newFile("sim.trace").toPath();
+        ThrottlePolicy myPolicy = new ThrottlePolicy(450, 1000);
+        LB myLB = new LB(2, myPolicy, true, SelectionStrategy.HEAP, new TraceSink(myFile, myPolicy, 2));
+
+        myLB.allocate(new IntBucketConsumer(new IntBucket[] {new FixedDurationBucket(50, 2000)}, new Well44497b()),
+                1000);
+        myLB.closeTrace();
+
+        ByteArrayOutputStream myBytes = new ByteArrayOutputStream();
+
+        try (PrintStream myOut = new PrintStream(myBytes, true, "UTF-8")) {
+            TraceDecoder.render(myFile, myOut, true);
+        }
+
+        String[] myLines = myBytes.toString("UTF-8").split(System.lineSeparator(), -1);
+
+        Assert.assertEquals("Limit: 450 per 1000 ticks, 1 ticks per ms, 2 nodes", myLines[0]);
+        Assert.assertEquals(2000, myLines[1].length());
+        Assert.assertEquals(200, myLines[1].chars().filter(aChar -> aChar == 'B').count());
+
+        for (Node myNode : myLB.getNodes()) {
+            StringBuilder myExpected = new StringBuilder();
+
+            for (Node.Breach myBreach : myNode.getBreaches())
+                myExpected.append(myBreach);
+
+            Assert.assertEquals("Node Id: " + myNode.getId(), myLines[2 + myNode.getId() * 2]);
+            Assert.assertEquals(myExpected.toString(), myLines[3 + myNode.getId() * 2]);
+        }
+    }
+
+    @Test
+    public void testHeaderRecordsTicks() throws Exception {
+        Path myFile = _folder.newFile("micros.trace").toPath();
+        long[] myHeader = new long[4];
+
+        new TraceSink(myFile, new ThrottlePolicy(25, 1000L * 1000), 1000, 3).close();
+
+        TraceDecoder.decode(myFile, new TraceDecoder.Listener() {
+            @Override
+            public void header(int aLimit, long aScopeTicks, int aTicksPerMilli, int aNumNodes) {
+                myHeader[0] = aLimit;
+                myHeader[1] = aScopeTicks;
+                myHeader[2] = aTicksPerMilli;
+                myHeader[3] = aNumNodes;
+            }
+
+            @Override
+            public void record(long aTime, int aNode, int aConnections, int anInScope, byte anOutcome) {
+                Assert.fail("No requests were traced");
+            }
+        });
+
+        Assert.assertArrayEquals(new long[] {25, 1000000, 1000, 3}, myHeader);
+    }
+
+    @Test
+    public void testTenantRejectionsTracedApart() throws Exception {
+        Path myFile = _folder.newFile("tenants.trace").toPath();
+        ThrottlePolicy myPolicy = new ThrottlePolicy(450, 1000);
+        LB myLB = new LB(2, myPolicy, new ThrottlePolicy(5, 1000), false, new Selection(SelectionStrategy.HEAP),
+                new TraceSink(myFile, myPolicy, 2));
+
+        myLB.allocate(new IntBucketConsumer(new IntBucket[] {new FixedDurationBucket(50, 2000)}, new Well44497b()),
+                new EvenArrivals(1000), new TenantMix(3, 1.0, 0.5).withGenerator(new Well44497b(3)), false);
+        myLB.closeTrace();
+
+        long[] myCounts = new long[3];
+
+        TraceDecoder.decode(myFile, new TraceDecoder.Listener() {
+            @Override
+            public void header(int aLimit, long aScopeTicks, int aTicksPerMilli, int aNumNodes) {
+            }
+
+            @Override
+            public void record(long aTime, int aNode, int aConnections, int anInScope, byte anOutcome) {
+                ++myCounts[anOutcome];
+            }
+        });
+
+        long myTenantBreaches = 0;
+        long myBreaches = 0;
+
+        for (Node myNode : myLB.getNodes()) {
+            myTenantBreaches += myNode.getTenantBreachCount();
+            myBreaches += myNode.getBreachCount();
+        }
+
+        Assert.assertTrue(myTenantBreaches > 0);
+        Assert.assertEquals(myTenantBreaches, myCounts[TraceSink.TENANT_REJECTED]);
+        Assert.assertEquals(myBreaches, myCounts[TraceSink.BREACHED]);
+        Assert.assertEquals(2000 - myTenantBreaches - myBreaches, myCounts[TraceSink.ADMITTED]);
+    }
+}